@@ -1,21 +1,22 @@
 package com.example.artemis.config;
 
-import java.util.Map;
+import com.example.artemis.listener.BatchJmsListenerContainerFactory;
+import com.example.artemis.service.RetryService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 
 import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
 import org.apache.activemq.artemis.jms.client.ActiveMQXAConnectionFactory;
 import org.messaginghub.pooled.jms.JmsPoolConnectionFactory;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
-import org.springframework.jms.connection.CachingConnectionFactory;
 import org.springframework.jms.connection.JmsTransactionManager;
 import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
 import org.springframework.web.client.RestTemplate;
 
 import jakarta.jms.Session;
@@ -23,8 +24,6 @@ import jakarta.jms.Session;
 @Configuration
 public class ArtemisJmsConfig {
 
-    private static final Logger logger = LoggerFactory.getLogger(ArtemisJmsConfig.class);
-
     @Value("${spring.artemis.user}")
     private String artemisUser;
 
@@ -40,26 +39,97 @@ public class ArtemisJmsConfig {
     @Value("${spring.artemis.pool.max-sessions-per-connection}")
     private int poolMaxSessionsPerConnection;
 
-    @Value("${spring.jms.listener.min-concurrency}")
-    private int listenerMinConcurrency;
+    @Value("${spring.artemis.pool.block-if-full}")
+    private boolean poolBlockIfFull;
+
+    @Value("${app.pool.default.max-sessions-per-connection:${spring.artemis.pool.max-sessions-per-connection}}")
+    private int defaultPoolMaxSessionsPerConnection;
+
+    @Value("${app.pool.interactive.max-sessions-per-connection:${spring.artemis.pool.max-sessions-per-connection}}")
+    private int interactivePoolMaxSessionsPerConnection;
+
+    @Value("${app.pool.interactive.block-if-full-timeout:${spring.artemis.pool.block-if-full-timeout}}")
+    private long interactivePoolBlockIfFullTimeout;
+
+    @Value("${spring.artemis.pool.block-if-full-timeout}")
+    private long poolBlockIfFullTimeout;
+
+    @Value("${app.pool.sync.block-if-full-timeout:${spring.artemis.pool.block-if-full-timeout}}")
+    private long syncPoolBlockIfFullTimeout;
+
+    @Value("${app.pool.tx.block-if-full-timeout:${spring.artemis.pool.block-if-full-timeout}}")
+    private long txPoolBlockIfFullTimeout;
 
-    @Value("${spring.jms.listener.max-concurrency}")
-    private int listenerMaxConcurrency;
+    @Value("${app.pool.leak-detection.capture-stacks:false}")
+    private boolean poolCaptureSessionStacks;
 
     @Value("${spring.jms.template.receive-timeout}")
     private int templateReceiveTimeout;
 
-    // Default Pooled ConnectionFactory
+    @Value("${app.lanes.interactive.concurrency}")
+    private String interactiveListenerConcurrency;
+
+    @Value("${app.lanes.interactive.priority}")
+    private int interactivePriority;
+
+    @Value("${app.lanes.bulk.concurrency:${spring.jms.listener.min-concurrency}-${spring.jms.listener.max-concurrency}}")
+    private String bulkListenerConcurrency;
+
+    @Value("${app.lanes.bulk.priority}")
+    private int bulkPriority;
+
+    @Value("${app.lanes.sync.priority}")
+    private int syncPriority;
+
+    @Value("${app.grouping.sync-concurrency}")
+    private String syncListenerConcurrency;
+
+    @Value("${app.grouping.max-messages-per-task}")
+    private int syncListenerMaxMessagesPerTask;
+
+    @Value("${app.batch.size}")
+    private int batchSize;
+
+    @Value("${app.batch.timeout}")
+    private long batchTimeout;
+
+    @Value("${app.batch.async.enabled}")
+    private boolean asyncBatchEnabled;
+
+    @Value("${app.batch.transaction.enabled}")
+    private boolean transactionBatchEnabled;
+
+    // Default Pooled ConnectionFactory, the bulk lane
     @Bean
-    public JmsPoolConnectionFactory defaultPooledConnectionFactory() {
+    public InstrumentedJmsPoolConnectionFactory defaultPooledConnectionFactory(MeterRegistry meterRegistry) {
         ActiveMQConnectionFactory factory = new ActiveMQConnectionFactory(brokerUrl);
         factory.setUser(artemisUser);
         factory.setPassword(artemisPassword);
 
-        JmsPoolConnectionFactory pool = new JmsPoolConnectionFactory();
+        InstrumentedJmsPoolConnectionFactory pool =
+                new InstrumentedJmsPoolConnectionFactory("default", meterRegistry, poolCaptureSessionStacks);
         pool.setConnectionFactory(factory);
         pool.setMaxConnections(poolMaxConnections);
-        pool.setMaxSessionsPerConnection(poolMaxSessionsPerConnection);
+        pool.setMaxSessionsPerConnection(defaultPoolMaxSessionsPerConnection);
+        pool.setBlockIfSessionPoolIsFull(poolBlockIfFull);
+        pool.setBlockIfSessionPoolIsFullTimeout(poolBlockIfFullTimeout); // fail fast instead of blocking forever
+        return pool;
+    }
+
+    // Interactive Pooled ConnectionFactory: own connection and session budget for request/reply
+    @Bean
+    public InstrumentedJmsPoolConnectionFactory interactivePooledConnectionFactory(MeterRegistry meterRegistry) {
+        ActiveMQConnectionFactory factory = new ActiveMQConnectionFactory(brokerUrl);
+        factory.setUser(artemisUser);
+        factory.setPassword(artemisPassword);
+
+        InstrumentedJmsPoolConnectionFactory pool =
+                new InstrumentedJmsPoolConnectionFactory("interactive", meterRegistry, poolCaptureSessionStacks);
+        pool.setConnectionFactory(factory);
+        pool.setMaxConnections(poolMaxConnections);
+        pool.setMaxSessionsPerConnection(interactivePoolMaxSessionsPerConnection);
+        pool.setBlockIfSessionPoolIsFull(poolBlockIfFull);
+        pool.setBlockIfSessionPoolIsFullTimeout(interactivePoolBlockIfFullTimeout);
         return pool;
     }
 
@@ -80,7 +150,7 @@ public class ArtemisJmsConfig {
 
     // Sync Pooled ConnectionFactory
     @Bean
-    public JmsPoolConnectionFactory syncPooledConnectionFactory() {
+    public InstrumentedJmsPoolConnectionFactory syncPooledConnectionFactory(MeterRegistry meterRegistry) {
         ActiveMQConnectionFactory factory = new ActiveMQConnectionFactory(brokerUrl);
         factory.setUser(artemisUser);
         factory.setPassword(artemisPassword);
@@ -88,10 +158,13 @@ public class ArtemisJmsConfig {
         // factory.setReconnectAttempts(0);
         // factory.setConnectionTTL(60000);
 
-        JmsPoolConnectionFactory pool = new JmsPoolConnectionFactory();
+        InstrumentedJmsPoolConnectionFactory pool =
+                new InstrumentedJmsPoolConnectionFactory("sync", meterRegistry, poolCaptureSessionStacks);
         pool.setConnectionFactory(factory);
         pool.setMaxConnections(poolMaxConnections);
         pool.setMaxSessionsPerConnection(poolMaxSessionsPerConnection);
+        pool.setBlockIfSessionPoolIsFull(poolBlockIfFull);
+        pool.setBlockIfSessionPoolIsFullTimeout(syncPoolBlockIfFullTimeout);
         pool.setConnectionIdleTimeout(10000);
         
         return pool;
@@ -115,15 +188,18 @@ public class ArtemisJmsConfig {
 
     // Transactional Pooled ConnectionFactory
     @Bean
-    public JmsPoolConnectionFactory txPooledConnectionFactory() {
+    public InstrumentedJmsPoolConnectionFactory txPooledConnectionFactory(MeterRegistry meterRegistry) {
         ActiveMQXAConnectionFactory factory = new ActiveMQXAConnectionFactory(brokerUrl);
         factory.setUser(artemisUser);
         factory.setPassword(artemisPassword);
 
-        JmsPoolConnectionFactory pool = new JmsPoolConnectionFactory();
+        InstrumentedJmsPoolConnectionFactory pool =
+                new InstrumentedJmsPoolConnectionFactory("tx", meterRegistry, poolCaptureSessionStacks);
         pool.setConnectionFactory(factory);
         pool.setMaxConnections(poolMaxConnections);
         pool.setMaxSessionsPerConnection(poolMaxSessionsPerConnection);
+        pool.setBlockIfSessionPoolIsFull(poolBlockIfFull);
+        pool.setBlockIfSessionPoolIsFullTimeout(txPoolBlockIfFullTimeout);
         return pool;
     }
 
@@ -142,13 +218,46 @@ public class ArtemisJmsConfig {
     //     return pool;
     // }
 
-    // Default listener container factory
+    // Interactive listener container factory, request/reply consumers on the interactive lane
     @Bean
-    public DefaultJmsListenerContainerFactory defaultJmsListenerContainerFactory(
-            @Qualifier("defaultPooledConnectionFactory") JmsPoolConnectionFactory connectionFactory) {
+    public DefaultJmsListenerContainerFactory interactiveJmsListenerContainerFactory(
+            @Qualifier("interactivePooledConnectionFactory") JmsPoolConnectionFactory connectionFactory,
+            ObservationRegistry observationRegistry) {
         DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
-        factory.setConcurrency(listenerMinConcurrency + "-" + listenerMaxConcurrency);
+        factory.setObservationRegistry(observationRegistry);
+        factory.setConcurrency(interactiveListenerConcurrency);
+        return factory;
+    }
+
+    // Async listener container factory, stopped while asyncQueue is consumed in batches
+    @Bean
+    public DefaultJmsListenerContainerFactory asyncJmsListenerContainerFactory(
+            @Qualifier("defaultPooledConnectionFactory") JmsPoolConnectionFactory connectionFactory,
+            ObservationRegistry observationRegistry) {
+        DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setObservationRegistry(observationRegistry);
+        factory.setConcurrency(bulkListenerConcurrency);
+        factory.setAutoStartup(!asyncBatchEnabled);
+        return factory;
+    }
+
+    // Async batch listener container factory: List<Message> per call, one local transaction per batch
+    @Bean
+    public BatchJmsListenerContainerFactory asyncBatchJmsListenerContainerFactory(
+            @Qualifier("defaultPooledConnectionFactory") JmsPoolConnectionFactory connectionFactory,
+            RetryService retryService,
+            ObservationRegistry observationRegistry) {
+        BatchJmsListenerContainerFactory factory = new BatchJmsListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setObservationRegistry(observationRegistry);
+        factory.setConcurrency(bulkListenerConcurrency);
+        factory.setSessionTransacted(true);
+        factory.setBatchSize(batchSize);
+        factory.setBatchTimeout(batchTimeout);
+        factory.setRetryService(retryService);
+        factory.setAutoStartup(asyncBatchEnabled);
         return factory;
     }
 
@@ -165,11 +274,15 @@ public class ArtemisJmsConfig {
     // Sync listener container factory
     @Bean
     public DefaultJmsListenerContainerFactory syncJmsListenerContainerFactory(
-            @Qualifier("syncPooledConnectionFactory") JmsPoolConnectionFactory connectionFactory) {
+            @Qualifier("syncPooledConnectionFactory") JmsPoolConnectionFactory connectionFactory,
+            ObservationRegistry observationRegistry) {
         DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
+        factory.setObservationRegistry(observationRegistry); // extracts trace context, one span per message
         factory.setSessionAcknowledgeMode(Session.CLIENT_ACKNOWLEDGE); // for SYNC listener
-        factory.setConcurrency(listenerMinConcurrency + "-" + listenerMaxConcurrency);
+        factory.setConcurrency(syncListenerConcurrency); // message groups keep per-entity order at any concurrency
+        factory.setCacheLevel(DefaultMessageListenerContainer.CACHE_CONSUMER); // keep consumers, and their groups, across receives
+        factory.setMaxMessagesPerTask(syncListenerMaxMessagesPerTask); // lets idle surplus consumers retire so groups rebalance
         return factory;
     }
 
@@ -188,15 +301,36 @@ public class ArtemisJmsConfig {
     @Bean
     public DefaultJmsListenerContainerFactory txJmsListenerContainerFactory(
             @Qualifier("defaultPooledConnectionFactory") JmsPoolConnectionFactory connectionFactory,
-            JmsTransactionManager jmsTransactionManager) {
+            JmsTransactionManager jmsTransactionManager,
+            ObservationRegistry observationRegistry) {
         DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
+        factory.setObservationRegistry(observationRegistry);
         factory.setConcurrency("1-1"); 
         factory.setSessionTransacted(true);
         factory.setTransactionManager(jmsTransactionManager);
         return factory;
     }
 
+    // Transactional batch listener container factory, single consumer to keep transaction batches together.
+    // Same pool as the retry sends, so retries and dead-letters commit with the batch
+    @Bean
+    public BatchJmsListenerContainerFactory txBatchJmsListenerContainerFactory(
+            @Qualifier("defaultPooledConnectionFactory") JmsPoolConnectionFactory connectionFactory,
+            RetryService retryService,
+            ObservationRegistry observationRegistry) {
+        BatchJmsListenerContainerFactory factory = new BatchJmsListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setObservationRegistry(observationRegistry);
+        factory.setConcurrency("1-1");
+        factory.setSessionTransacted(true); // local transaction per batch, no JmsTransactionManager
+        factory.setBatchSize(batchSize);
+        factory.setBatchTimeout(batchTimeout);
+        factory.setRetryService(retryService);
+        factory.setAutoStartup(transactionBatchEnabled);
+        return factory;
+    }
+
     @Bean
     public JmsTransactionManager jmsTransactionManager(
             @Qualifier("txPooledConnectionFactory") JmsPoolConnectionFactory connectionFactory) {
@@ -225,9 +359,26 @@ public class ArtemisJmsConfig {
     // Default jms template
     @Bean
     public JmsTemplate defaultJmsTemplate(
-            @Qualifier("defaultPooledConnectionFactory") JmsPoolConnectionFactory connectionFactory) {
+            @Qualifier("defaultPooledConnectionFactory") JmsPoolConnectionFactory connectionFactory,
+            ObservationRegistry observationRegistry) {
         JmsTemplate template = new JmsTemplate(connectionFactory);
         template.setReceiveTimeout(templateReceiveTimeout);
+        template.setObservationRegistry(observationRegistry); // injects traceparent into outgoing messages
+        template.setExplicitQosEnabled(true);
+        template.setPriority(bulkPriority); // bulk lane, dispatched after interactive messages on shared queues
+        return template;
+    }
+
+    // Interactive jms template, sends and reply receives of the interactive lane
+    @Bean
+    public JmsTemplate interactiveJmsTemplate(
+            @Qualifier("interactivePooledConnectionFactory") JmsPoolConnectionFactory connectionFactory,
+            ObservationRegistry observationRegistry) {
+        JmsTemplate template = new JmsTemplate(connectionFactory);
+        template.setReceiveTimeout(templateReceiveTimeout);
+        template.setObservationRegistry(observationRegistry);
+        template.setExplicitQosEnabled(true);
+        template.setPriority(interactivePriority);
         return template;
     }
 
@@ -243,10 +394,14 @@ public class ArtemisJmsConfig {
     // Sync jms template
     @Bean
     public JmsTemplate syncJmsTemplate(
-            @Qualifier("syncPooledConnectionFactory") JmsPoolConnectionFactory connectionFactory) {
+            @Qualifier("syncPooledConnectionFactory") JmsPoolConnectionFactory connectionFactory,
+            ObservationRegistry observationRegistry) {
         JmsTemplate template = new JmsTemplate(connectionFactory);
         template.setReceiveTimeout(templateReceiveTimeout);
+        template.setObservationRegistry(observationRegistry);
         template.setSessionAcknowledgeMode(Session.CLIENT_ACKNOWLEDGE); // for SYNC send
+        template.setExplicitQosEnabled(true);
+        template.setPriority(syncPriority); // sync lane
         return template;
     }
 
@@ -263,9 +418,13 @@ public class ArtemisJmsConfig {
     // Transactional jms template
     @Bean
     public JmsTemplate txJmsTemplate(
-            @Qualifier("defaultPooledConnectionFactory") JmsPoolConnectionFactory connectionFactory) {
+            @Qualifier("defaultPooledConnectionFactory") JmsPoolConnectionFactory connectionFactory,
+            ObservationRegistry observationRegistry) {
         JmsTemplate template = new JmsTemplate(connectionFactory);
         template.setReceiveTimeout(templateReceiveTimeout);
+        template.setObservationRegistry(observationRegistry);
+        template.setExplicitQosEnabled(true);
+        template.setPriority(bulkPriority);
         template.setSessionTransacted(true); // for transactional send
         return template;
     }
@@ -285,130 +444,4 @@ public class ArtemisJmsConfig {
         return new RestTemplate();
     }
 
-    // JMS configuration check on debug level
-    @Bean
-    public CommandLineRunner check(
-            // Map<String, JmsPoolConnectionFactory> pools,
-            Map<String, CachingConnectionFactory> pools,
-            Map<String, JmsTemplate> templates,
-            Map<String, DefaultJmsListenerContainerFactory> listeners
-    ) {
-        return args -> {
-            logger.debug("---- JMS CONFIGURATION CHECK ----");
-
-            pools.forEach((poolName, pool) -> {
-                logger.debug("JmsPoolConnectionFactory bean: {}", poolName);
-
-                templates.forEach((templateName, jmsTemplate) -> {
-                    logger.debug("Associated JmsTemplate bean: {}", templateName);
-
-                    try {
-                        jmsTemplate.execute(session -> {
-                            logger.debug("Forcing connection creation for diagnostics...");
-                            return null;
-                        });
-                    } catch (Exception e) {
-                        logger.warn("Dummy connection attempt failed: {}", e.getMessage());
-                    }
-
-                    logger.debug("ConnectionFactory type: {}", pool.getClass().getName());
-
-                    logger.debug("ConnectionFactory settings:");
-                    // logger.debug("  maxConnections={} maxSessionsPerConnection={} blockIfFull={} blockIfFullTimeout(ms)={}",
-                    //         pool.getMaxConnections(),
-                    //         pool.getMaxSessionsPerConnection(),
-                    //         pool.getSessionCacheSize(),
-                    //         pool.isBlockIfSessionPoolIsFull(),
-                    //         pool.getBlockIfSessionPoolIsFullTimeout()
-                    // );
-                    logger.debug("  cachedSessionCount={} sessionCacheSize={}",
-                            pool.getCachedSessionCount(),
-                            pool.getSessionCacheSize()
-                    );
-                    // logger.debug("  connectionIdleTimeout(ms)={} connectionCheckInterval(ms)={} useProviderJMSContext={}",
-                    //         pool.getConnectionIdleTimeout(),
-                    //         pool.getConnectionCheckInterval(),
-                    //         pool.isUseProviderJMSContext()
-                    // );
-                    // logger.debug("  numConnectionsInUse={}", pool.getNumConnections());
-
-                    // var delegate = pool.getConnectionFactory();
-                    var delegate = pool.getTargetConnectionFactory();
-                    logger.debug("Delegate factory type: {}", delegate.getClass().getName());
-
-                    if (delegate instanceof ActiveMQConnectionFactory amq) {
-                        var locator = amq.getServerLocator();
-
-                        logger.debug("Artemis ServerLocator settings:");
-                        logger.debug("  reconnectAttempts={} retryInterval={} retryIntervalMultiplier={} maxRetryInterval={}",
-                                locator.getReconnectAttempts(),
-                                locator.getRetryInterval(),
-                                locator.getRetryIntervalMultiplier(),
-                                locator.getMaxRetryInterval()
-                        );
-                        logger.debug("  confirmationWindowSize={} consumerWindowSize={}",
-                                locator.getConfirmationWindowSize(),
-                                locator.getConsumerWindowSize()
-                        );
-                        logger.debug("  blockOnDurableSend={} blockOnNonDurableSend={} blockOnAcknowledge={}",
-                                locator.isBlockOnDurableSend(),
-                                locator.isBlockOnNonDurableSend(),
-                                locator.isBlockOnAcknowledge()
-                        );
-                        logger.debug("  ackBatchSize={}",
-                                locator.getAckBatchSize()
-                        );
-                        logger.debug("  producerMaxRate={} consumerMaxRate={}",
-                                locator.getProducerMaxRate(),
-                                locator.getConsumerMaxRate()
-                        );
-                        logger.debug("  callTimeout(ms)={} callFailoverTimeout(ms)={} clientFailureCheckPeriod(ms)={}",
-                                locator.getCallTimeout(),
-                                locator.getCallFailoverTimeout(),
-                                locator.getClientFailureCheckPeriod()
-                        );
-                        logger.debug("  connectionTTL(ms)={} connectionLoadBalancingPolicyClassName={}",
-                                locator.getConnectionTTL(),
-                                locator.getConnectionLoadBalancingPolicyClassName()
-                        );
-                        logger.debug("  minLargeMessageSize={}",
-                                locator.getMinLargeMessageSize()
-                        );
-                        logger.debug("  useGlobalPools={} scheduledThreadPoolMaxSize={} threadPoolMaxSize={}",
-                                locator.isUseGlobalPools(),
-                                locator.getScheduledThreadPoolMaxSize(),
-                                locator.getThreadPoolMaxSize()
-                        );
-                        logger.debug("  autoGroup={} preAcknowledge={} cacheLargeMessagesClient={}",
-                                locator.isAutoGroup(),
-                                locator.isPreAcknowledge(),
-                                locator.isCacheLargeMessagesClient()
-                        );
-                        logger.debug("  initialConnectAttempts={} reconnectAttempts={} retryInterval={} retryIntervalMultiplier={} maxRetryInterval={}",
-                                locator.getInitialConnectAttempts(),
-                                locator.getReconnectAttempts(),
-                                locator.getRetryInterval(),
-                                locator.getRetryIntervalMultiplier(),
-                                locator.getMaxRetryInterval()
-                        );
-                    }
-
-                    logger.debug("JmsTemplate settings:");
-                    logger.debug("  sessionTransacted={} acknowledgeMode={} receiveTimeout(ms)={} timeToLive(ms)={}",
-                            jmsTemplate.isSessionTransacted(),
-                            jmsTemplate.getSessionAcknowledgeMode(),
-                            jmsTemplate.getReceiveTimeout(),
-                            jmsTemplate.getTimeToLive()
-                    );
-                });
-
-                listeners.forEach((listenerName, listener) -> {
-                    logger.debug("Listener container factory bean: {}", listenerName);
-                });
-            });
-
-            logger.debug("---- END JMS CONFIGURATION CHECK ----");
-        };
-    }
-
 }
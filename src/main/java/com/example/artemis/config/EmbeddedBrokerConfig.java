@@ -0,0 +1,63 @@
+package com.example.artemis.config;
+
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
+
+// In-process Artemis broker, enabled with the "embedded" profile (see application-embedded.yml)
+@org.springframework.context.annotation.Configuration
+@Profile("embedded")
+public class EmbeddedBrokerConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedBrokerConfig.class);
+
+    @Value("${app.embedded.acceptors:vm://0}")
+    private String[] acceptors;
+
+    @Value("${app.queue.sync}")
+    private String syncQueueName;
+
+    @Value("${app.grouping.group-buckets}")
+    private int groupBuckets;
+
+    @Value("${app.retry.max-attempts}")
+    private int retryMaxAttempts;
+
+    @Value("${app.retry.dlq-suffix}")
+    private String dlqSuffix;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public EmbeddedActiveMQ embeddedBroker() throws Exception {
+        Configuration config = new ConfigurationImpl();
+        config.setPersistenceEnabled(false);  // in-memory only, nothing survives a restart
+        config.setSecurityEnabled(false);
+        for (int i = 0; i < acceptors.length; i++) {
+            config.addAcceptorConfiguration("acceptor-" + i, acceptors[i].trim());
+        }
+
+        // Reassign message groups when sync listener consumers are added, after in-flight messages are acked.
+        // Grouped messages are redelivered by the broker, then dead-lettered to the same DLQ client-side retry uses
+        String syncDlqName = syncQueueName + dlqSuffix;
+        config.addQueueConfiguration(new QueueConfiguration(syncDlqName).setRoutingType(RoutingType.ANYCAST));
+        config.addAddressSetting(syncQueueName, new AddressSettings()
+                .setDefaultGroupRebalance(true)
+                .setDefaultGroupRebalancePauseDispatch(true)
+                .setDefaultGroupBuckets(groupBuckets)
+                .setMaxDeliveryAttempts(retryMaxAttempts + 1)
+                .setDeadLetterAddress(SimpleString.toSimpleString(syncDlqName)));
+
+        EmbeddedActiveMQ broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(config);
+        logger.info("Embedded Artemis broker configured with acceptors {}", String.join(",", acceptors));
+        return broker;
+    }
+}
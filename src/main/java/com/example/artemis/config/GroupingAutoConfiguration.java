@@ -0,0 +1,37 @@
+package com.example.artemis.config;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.example.artemis.service.GroupKeyExtractor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+// Default GroupKeyExtractor. Auto-configurations run after application beans are registered,
+// so a GroupKeyExtractor bean declared by the application reliably replaces this one.
+@AutoConfiguration
+public class GroupingAutoConfiguration {
+
+    // First capture group of app.grouping.key-pattern matched against the payload
+    @Bean
+    @ConditionalOnMissingBean
+    public GroupKeyExtractor groupKeyExtractor(
+            @Value("${app.grouping.enabled}") boolean groupingEnabled,
+            @Value("${app.grouping.key-pattern}") String groupKeyPattern) {
+        Pattern pattern = Pattern.compile(groupKeyPattern);
+        if (groupingEnabled && pattern.matcher("").groupCount() < 1) {
+            throw new IllegalArgumentException(
+                    "app.grouping.key-pattern needs a capture group for the group ID: " + groupKeyPattern);
+        }
+        return (queueName, payload) -> {
+            if (!groupingEnabled || payload == null) {
+                return null;
+            }
+            Matcher matcher = pattern.matcher(payload);
+            return matcher.find() ? matcher.group(1) : null;
+        };
+    }
+}
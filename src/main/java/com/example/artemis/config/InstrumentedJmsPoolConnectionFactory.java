@@ -0,0 +1,127 @@
+package com.example.artemis.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.jms.JMSException;
+import jakarta.jms.Session;
+
+import org.messaginghub.pooled.jms.JmsPoolConnection;
+import org.messaginghub.pooled.jms.JmsPoolConnectionFactory;
+import org.messaginghub.pooled.jms.JmsPoolSession;
+import org.messaginghub.pooled.jms.pool.PooledConnection;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link JmsPoolConnectionFactory} that records session borrow contention per pool:
+ * borrow wait time, borrows in progress, waiters, sessions on loan, and borrow timeouts
+ * when {@code blockIfSessionPoolIsFullTimeout} expires. A waiter is a borrow that found
+ * every session of its connection on loan and has to block until one is returned;
+ * borrows in progress also count uncontended ones. Sessions on loan are tracked with
+ * their holder so {@link SessionLeakDetector} can report long-held ones.
+ */
+public class InstrumentedJmsPoolConnectionFactory extends JmsPoolConnectionFactory {
+
+    /** Borrow details of a session currently on loan. */
+    public record Loan(long borrowedAtNanos, String threadName, StackTraceElement[] stack) {
+    }
+
+    private final String poolName;
+    private final boolean captureStacks;
+    private final AtomicInteger pendingBorrows = new AtomicInteger();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final Map<JmsPoolSession, Loan> loans = new ConcurrentHashMap<>();
+    private final Timer borrowTimer;
+    private final Counter borrowTimeouts;
+
+    public InstrumentedJmsPoolConnectionFactory(String poolName, MeterRegistry meterRegistry, boolean captureStacks) {
+        this.poolName = poolName;
+        this.captureStacks = captureStacks;
+        this.borrowTimer = Timer.builder("artemis.pool.session.borrow")
+                .tag("pool", poolName)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.borrowTimeouts = Counter.builder("artemis.pool.session.borrow.timeouts")
+                .tag("pool", poolName)
+                .register(meterRegistry);
+        Gauge.builder("artemis.pool.session.borrows.pending", pendingBorrows, AtomicInteger::get)
+                .tag("pool", poolName)
+                .register(meterRegistry);
+        Gauge.builder("artemis.pool.session.waiters", waiters, AtomicInteger::get)
+                .tag("pool", poolName)
+                .register(meterRegistry);
+        Gauge.builder("artemis.pool.session.active", loans, Map::size)
+                .tag("pool", poolName)
+                .register(meterRegistry);
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public int getPendingBorrows() {
+        return pendingBorrows.get();
+    }
+
+    public int getWaiters() {
+        return waiters.get();
+    }
+
+    public Map<JmsPoolSession, Loan> getLoans() {
+        return loans;
+    }
+
+    @Override
+    protected JmsPoolConnection newPooledConnectionWrapper(PooledConnection connection) {
+        return new JmsPoolConnection(connection) {
+
+            // All other createSession/createQueueSession variants delegate here
+            @Override
+            public Session createSession(boolean transacted, int acknowledgeMode) throws JMSException {
+                long start = System.nanoTime();
+                pendingBorrows.incrementAndGet();
+                // Every session of this connection is on loan, so the borrow blocks until one is returned
+                int maxSessions = connection.getMaxSessionsPerConnection();
+                boolean waiting = maxSessions > 0 && connection.getNumActiveSessions() >= maxSessions;
+                if (waiting) {
+                    waiters.incrementAndGet();
+                }
+                Session session;
+                try {
+                    session = super.createSession(transacted, acknowledgeMode);
+                } catch (JMSException e) {
+                    // Pool exhaustion surfaces as commons-pool's NoSuchElementException wrapped by pooled-jms
+                    if (e.getCause() instanceof NoSuchElementException) {
+                        borrowTimeouts.increment();
+                    }
+                    throw e;
+                } finally {
+                    if (waiting) {
+                        waiters.decrementAndGet();
+                    }
+                    pendingBorrows.decrementAndGet();
+                    borrowTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+
+                if (session instanceof JmsPoolSession pooled) {
+                    Thread holder = Thread.currentThread();
+                    loans.put(pooled, new Loan(System.nanoTime(), holder.getName(),
+                            captureStacks ? holder.getStackTrace() : null));
+                }
+                return session;
+            }
+
+            @Override
+            public void onSessionClosed(JmsPoolSession session) {
+                loans.remove(session);
+                super.onSessionClosed(session);
+            }
+        };
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.artemis.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.messaginghub.pooled.jms.JmsPoolSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Periodically reports pooled sessions held longer than a threshold, once per session,
+ * with the holder thread and (if captured) the stack at borrow time.
+ * <p>
+ * Listener containers keep their sessions for their whole lifetime, so threads matching
+ * {@code app.pool.leak-detection.ignored-thread-prefixes} are skipped.
+ */
+@Component
+public class SessionLeakDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionLeakDetector.class);
+
+    @Value("${app.pool.leak-detection.threshold:30000}")
+    private long thresholdMillis;
+
+    @Value("${app.pool.leak-detection.interval:10000}")
+    private long intervalMillis;
+
+    @Value("${app.pool.leak-detection.ignored-thread-prefixes:org.springframework.jms.JmsListenerEndpointContainer}")
+    private String[] ignoredThreadPrefixes;
+
+    private final List<InstrumentedJmsPoolConnectionFactory> pools;
+    private final MeterRegistry meterRegistry;
+    private final Set<JmsPoolSession> reported = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "session-leak-detector");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SessionLeakDetector(List<InstrumentedJmsPoolConnectionFactory> pools, MeterRegistry meterRegistry) {
+        this.pools = pools;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (thresholdMillis > 0) {
+            scheduler.scheduleWithFixedDelay(this::check, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    void check() {
+        long now = System.nanoTime();
+        long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        // Forget sessions that have been returned so a later long loan is reported again
+        reported.removeIf(session -> pools.stream().noneMatch(pool -> pool.getLoans().containsKey(session)));
+
+        for (InstrumentedJmsPoolConnectionFactory pool : pools) {
+            pool.getLoans().forEach((session, loan) -> {
+                long heldMillis = TimeUnit.NANOSECONDS.toMillis(now - loan.borrowedAtNanos());
+                if (now - loan.borrowedAtNanos() < thresholdNanos || isIgnored(loan.threadName())
+                        || !reported.add(session)) {
+                    return;
+                }
+                Counter.builder("artemis.pool.session.leaks").tag("pool", pool.getPoolName())
+                        .register(meterRegistry).increment();
+                logger.warn("Possible session leak in pool {}: session held for {} ms by thread {}{}",
+                        pool.getPoolName(), heldMillis, loan.threadName(), formatStack(loan.stack()));
+            });
+        }
+    }
+
+    private boolean isIgnored(String threadName) {
+        return Arrays.stream(ignoredThreadPrefixes).anyMatch(prefix -> !prefix.isBlank() && threadName.startsWith(prefix.trim()));
+    }
+
+    private static String formatStack(StackTraceElement[] stack) {
+        if (stack == null) {
+            return " (enable app.pool.leak-detection.capture-stacks for the borrow stack)";
+        }
+        return Arrays.stream(stack)
+                .skip(2) // Thread.getStackTrace and createSession itself
+                .map(element -> "\n\tat " + element)
+                .collect(Collectors.joining("", ", borrowed at:", ""));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.artemis.controller;
+
+import com.example.artemis.service.ReactiveJmsService;
+
+import jakarta.jms.JMSException;
+import jakarta.jms.TextMessage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Reactive counterparts of the /artemis endpoints. Reactor return types are handled by
+// Spring MVC asynchronously, and streamed responses request one element per write.
+@RestController
+@RequestMapping("/artemis/reactive")
+public class ReactiveArtemisController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveArtemisController.class);
+    private final ReactiveJmsService reactiveJmsService;
+
+    @Value("${app.queue.reactive}")
+    private String reactiveQueueName;
+
+    @Value("${app.queue.request}")
+    private String requestQueueName;
+
+    public ReactiveArtemisController(ReactiveJmsService reactiveJmsService) {
+        this.reactiveJmsService = reactiveJmsService;
+    }
+
+    @PostMapping("/send")
+    public Mono<ResponseEntity<String>> send(@RequestBody String message) {
+        return reactiveJmsService.send(reactiveQueueName, message)
+                .then(Mono.just(ResponseEntity.ok("REACTIVE message sent")))
+                .onErrorResume(e -> {
+                    logger.error("Failed to send reactive message", e);
+                    return Mono.just(ResponseEntity.status(500).body("Error sending reactive message: " + e.getMessage()));
+                });
+    }
+
+    @PostMapping("/send/request")
+    public Mono<ResponseEntity<String>> sendRequest(@RequestBody String message) {
+        return reactiveJmsService.request(requestQueueName, message)
+                .map(reply -> ResponseEntity.ok("Received reply: " + reply))
+                .defaultIfEmpty(ResponseEntity.status(204).body("No reply received"))
+                .onErrorResume(e -> {
+                    logger.error("Failed to send reactive request message", e);
+                    return Mono.just(ResponseEntity.status(500).body("Error sending request message: " + e.getMessage()));
+                });
+    }
+
+    @GetMapping(value = "/receive", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<String> receive(@RequestParam(name = "limit", defaultValue = "100") int limit) {
+        return reactiveJmsService.receive(reactiveQueueName)
+                .take(limit)
+                .map(message -> {
+                    try {
+                        return message instanceof TextMessage text ? text.getText() : message.toString();
+                    } catch (JMSException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+    }
+}
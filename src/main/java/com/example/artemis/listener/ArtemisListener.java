@@ -4,7 +4,9 @@ import jakarta.jms.TextMessage;
 
 // import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,6 +16,11 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jms.annotation.JmsListener;
 import org.springframework.jms.core.JmsTemplate;
 import org.springframework.stereotype.Component;
+
+import com.example.artemis.service.RetryService;
+import com.example.artemis.service.TrafficLanes;
+import com.example.artemis.tracing.LatencyRecorder;
+
 import jakarta.jms.Destination;
 import jakarta.jms.Message;
 import jakarta.jms.MessageConsumer;
@@ -26,8 +33,10 @@ public class ArtemisListener
     {
 
     private static final Logger logger = LoggerFactory.getLogger(ArtemisListener.class);
-    private final JmsTemplate jmsTemplate;
     private final JmsTemplate txJmsTemplate;
+    private final RetryService retryService;
+    private final TrafficLanes trafficLanes;
+    private final LatencyRecorder latencyRecorder;
 
     @Value("${spring.jms.template.receive-timeout}")
     private int receiveTimeout;
@@ -35,11 +44,24 @@ public class ArtemisListener
     @Value("${app.queue.sync}")
     private String syncQueue;
 
+    @Value("${app.queue.async}")
+    private String asyncQueue;
+
+    @Value("${app.queue.request}")
+    private String requestQueue;
+
+    @Value("${app.queue.transaction}")
+    private String transactionQueue;
+
     public ArtemisListener(
-            @Qualifier("defaultJmsTemplate") JmsTemplate jmsTemplate,
-            @Qualifier("txJmsTemplate") JmsTemplate txJmsTemplate) {
-        this.jmsTemplate = jmsTemplate;
+            @Qualifier("txJmsTemplate") JmsTemplate txJmsTemplate,
+            RetryService retryService,
+            TrafficLanes trafficLanes,
+            LatencyRecorder latencyRecorder) {
         this.txJmsTemplate = txJmsTemplate;
+        this.retryService = retryService;
+        this.trafficLanes = trafficLanes;
+        this.latencyRecorder = latencyRecorder;
     }
 
     /** Scenario 1: Synchronous consumption */
@@ -48,6 +70,7 @@ public class ArtemisListener
     @JmsListener(destination = "${app.queue.sync}", containerFactory = "syncJmsListenerContainerFactory")
     public void receiveSync(Message message, Session session) throws Exception {
         // LocalDateTime now = LocalDateTime.now();
+        long receivedAt = LatencyRecorder.nowMicros();
         try {
             if (message instanceof TextMessage text) {
                 logger.info("Received SYNC: {}", text.getText());
@@ -77,8 +100,13 @@ public class ArtemisListener
             }
         } catch (Exception e) {
             logger.error("Message processing failed", e);
-            throw e; 
+            // Re-publish with backoff (or dead-letter) instead of immediate broker redelivery
+            if (!retryService.handleFailure(message, e)) {
+                throw e;
+            }
+            message.acknowledge();
         }
+        latencyRecorder.recordConsumed(message, syncQueue, receivedAt);
         // LocalDateTime after = LocalDateTime.now();
         // logger.info("Time taken to wait for SYNC message: {} ms", java.time.Duration.between(now, after).toMillis());
     }
@@ -125,10 +153,12 @@ public class ArtemisListener
                 MessageConsumer consumer = session.createConsumer(queue);
 
                 List<TextMessage> batch = new ArrayList<>();
+                List<Long> receivedAt = new ArrayList<>();
                 Message msg;
                 while ((msg = consumer.receive(receiveTimeout)) != null) {
                     if (batchId.equals(msg.getStringProperty("batchId"))) {
                         batch.add((TextMessage) msg);
+                        receivedAt.add(LatencyRecorder.nowMicros());
                     }
                 }
 
@@ -140,6 +170,9 @@ public class ArtemisListener
                 } else {
                     logger.warn("No messages found for batchId={}", batchId);
                 }
+                for (int i = 0; i < batch.size(); i++) {
+                    latencyRecorder.recordConsumed(batch.get(i), transactionQueueName, receivedAt.get(i));
+                }
 
                 session.commit(); 
                 logger.info("Transaction {} received and committed with {} messages", batchId, batch.size());
@@ -151,21 +184,62 @@ public class ArtemisListener
         }
     }
 
+    // Batch variant of scenario 2, enabled with app.batch.transaction.enabled
+    // Session transacted = true, the listener batch is committed as one transaction
+    @JmsListener(destination = "${app.queue.transaction}", containerFactory = "txBatchJmsListenerContainerFactory")
+    public void receiveTransactionBatch(List<Message> messages) throws Exception {
+        long receivedAt = LatencyRecorder.nowMicros();
+        Map<String, List<TextMessage>> byBatchId = new LinkedHashMap<>();
+        for (Message msg : messages) {
+            byBatchId.computeIfAbsent(msg.getStringProperty("batchId"), id -> new ArrayList<>()).add((TextMessage) msg);
+        }
+
+        for (Map.Entry<String, List<TextMessage>> batch : byBatchId.entrySet()) {
+            logger.info("Processing batchId={} with {} messages", batch.getKey(), batch.getValue().size());
+            for (TextMessage m : batch.getValue()) {
+                logger.info("Message: {}", m.getText());
+            }
+        }
+        for (Message msg : messages) {
+            latencyRecorder.recordConsumed(msg, transactionQueue, receivedAt);
+        }
+    }
+
     /** Scenario 3: Asynchronous consumption */
     // Session ack mode = AUTO_ACKNOWLEDGE 
-    @JmsListener(destination = "${app.queue.async}", containerFactory = "defaultJmsListenerContainerFactory")
+    @JmsListener(destination = "${app.queue.async}", containerFactory = "asyncJmsListenerContainerFactory")
     public void receiveAsync(TextMessage message) throws Exception {
+        long receivedAt = LatencyRecorder.nowMicros();
         try {
             logger.info("ASYNC message received: {}", message.getText()); 
         } catch (Exception e) {
             logger.error("Processing failed", e);
-            throw e; 
-        }        
+            if (!retryService.handleFailure(message, e)) {
+                throw e;
+            }
+        }
+        latencyRecorder.recordConsumed(message, asyncQueue, receivedAt);
+    }
+
+    // Batch variant of scenario 3, enabled with app.batch.async.enabled
+    // Failures are retried per message by the container, see BatchMessageListenerContainer
+    @JmsListener(destination = "${app.queue.async}", containerFactory = "asyncBatchJmsListenerContainerFactory")
+    public void receiveAsyncBatch(List<Message> messages) throws Exception {
+        long receivedAt = LatencyRecorder.nowMicros();
+        logger.info("ASYNC batch received: {} messages", messages.size());
+        for (Message msg : messages) {
+            logger.info("ASYNC message received: {}", ((TextMessage) msg).getText());
+        }
+        for (Message msg : messages) {
+            latencyRecorder.recordConsumed(msg, asyncQueue, receivedAt);
+        }
     }
 
     /** Scenario 4: Request-Reply consumption */
-    @JmsListener(destination = "${app.queue.request}", containerFactory = "defaultJmsListenerContainerFactory")
+    // Consumes and replies on the interactive lane
+    @JmsListener(destination = "${app.queue.request}", containerFactory = "interactiveJmsListenerContainerFactory")
     public void receiveAndReply(TextMessage message) throws Exception {
+        long receivedAt = LatencyRecorder.nowMicros();
         try {
             String text = message.getText();
             logger.info("Received request: {}", text);
@@ -173,10 +247,13 @@ public class ArtemisListener
             Destination replyDest = message.getJMSReplyTo();
             if (replyDest != null) {
                 String replyText = "Reply to: " + text;
-                jmsTemplate.send(replyDest, session -> {
+                // The lane follows the reply queue, so app.lanes.interactive.destinations decides it like any other send
+                String replyQueue = replyDest instanceof Queue queue ? queue.getQueueName() : requestQueue;
+                trafficLanes.templateFor(replyQueue).send(replyDest, session -> {
                     TextMessage replyMessage = session.createTextMessage(replyText);
                     replyMessage.setJMSCorrelationID(message.getJMSCorrelationID());
-                    return replyMessage;
+                    replyMessage.setLongProperty(LatencyRecorder.REQUEST_RECEIVED_AT_PROPERTY, receivedAt);
+                    return latencyRecorder.stamp(replyMessage);
                 });
                 logger.info("Sent reply: {} to queue {}", replyText, replyDest);
             } else {
@@ -184,7 +261,10 @@ public class ArtemisListener
             }
         } catch (Exception e) {
             logger.error("Failed to process request message", e);
-            throw e; 
+            if (!retryService.handleFailure(message, e)) {
+                throw e;
+            }
         }
+        latencyRecorder.recordConsumed(message, requestQueue, receivedAt);
     }    
 }
@@ -0,0 +1,82 @@
+package com.example.artemis.listener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import com.example.artemis.service.RetryService;
+
+import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
+import org.springframework.jms.config.JmsListenerEndpoint;
+import org.springframework.jms.config.MethodJmsListenerEndpoint;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.listener.adapter.ListenerExecutionFailedException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Listener container factory for {@code @JmsListener} methods taking a {@code List<Message>}.
+ * The annotated method becomes the {@link BatchMessageListener} of a
+ * {@link BatchMessageListenerContainer}; all other factory settings apply as usual.
+ */
+public class BatchJmsListenerContainerFactory extends DefaultJmsListenerContainerFactory {
+
+    private int batchSize = 100;
+
+    private long batchTimeout = 200;
+
+    @Nullable
+    private RetryService retryService;
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setBatchTimeout(long batchTimeout) {
+        this.batchTimeout = batchTimeout;
+    }
+
+    public void setRetryService(@Nullable RetryService retryService) {
+        this.retryService = retryService;
+    }
+
+    @Override
+    protected DefaultMessageListenerContainer createContainerInstance() {
+        return new BatchMessageListenerContainer();
+    }
+
+    @Override
+    protected void initializeContainer(DefaultMessageListenerContainer container) {
+        super.initializeContainer(container);
+        BatchMessageListenerContainer batchContainer = (BatchMessageListenerContainer) container;
+        batchContainer.setBatchSize(batchSize);
+        batchContainer.setBatchTimeout(batchTimeout);
+        batchContainer.setRetryService(retryService);
+    }
+
+    @Override
+    public DefaultMessageListenerContainer createListenerContainer(JmsListenerEndpoint endpoint) {
+        BatchMessageListenerContainer container = (BatchMessageListenerContainer) super.createListenerContainer(endpoint);
+        if (!(endpoint instanceof MethodJmsListenerEndpoint methodEndpoint)) {
+            throw new IllegalStateException("Batch listener containers only support @JmsListener methods: " + endpoint);
+        }
+        container.setBatchMessageListener(batchListenerFor(methodEndpoint.getBean(), methodEndpoint.getMethod()));
+        return container;
+    }
+
+    private static BatchMessageListener batchListenerFor(Object bean, Method method) {
+        if (method.getParameterCount() != 1 || !method.getParameterTypes()[0].isAssignableFrom(List.class)) {
+            throw new IllegalStateException("Batch @JmsListener method must take a single List<Message>: " + method);
+        }
+        ReflectionUtils.makeAccessible(method);
+        return messages -> {
+            try {
+                method.invoke(bean, messages);
+            } catch (InvocationTargetException e) {
+                // Same wrapping as the single-message listener adapter
+                throw new ListenerExecutionFailedException(
+                        "Listener method '" + method.toGenericString() + "' threw exception", e.getTargetException());
+            }
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.artemis.listener;
+
+import java.util.List;
+
+import jakarta.jms.Message;
+
+/**
+ * Handler invoked by {@link BatchMessageListenerContainer} with all messages of one batch.
+ * Throwing replays the messages one at a time, in the same transaction, so implementations
+ * should be idempotent for messages they already processed. Messages that still fail go to
+ * {@code RetryService}; the batch is rolled back only when a failure cannot be handed over.
+ */
+@FunctionalInterface
+public interface BatchMessageListener {
+
+    void onMessages(List<Message> messages) throws Exception;
+}
@@ -0,0 +1,202 @@
+package com.example.artemis.listener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.example.artemis.service.RetryService;
+
+import io.micrometer.observation.Observation;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.Session;
+
+import org.springframework.jms.connection.JmsResourceHolder;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.listener.adapter.ListenerExecutionFailedException;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@link DefaultMessageListenerContainer} that hands messages to a {@link BatchMessageListener}
+ * in batches of up to {@code batchSize} messages, waiting at most {@code batchTimeout} ms
+ * after the first message of a batch.
+ * <p>
+ * Each consumer collects its batch on its own cached session, so the whole batch is
+ * committed (or acknowledged, in CLIENT_ACKNOWLEDGE mode) once the handler returns. If the
+ * handler fails, the messages are replayed to it one at a time; messages that still fail go
+ * through {@link RetryService} and the batch is then committed. When a failure cannot be
+ * handed over (retry disabled), the whole batch is rolled back for broker redelivery.
+ * <p>
+ * As in the standard receive path, the listener session is exposed to {@code JmsTemplate}
+ * while the handler runs, and each message gets a process observation when an
+ * {@code ObservationRegistry} is set.
+ */
+public class BatchMessageListenerContainer extends DefaultMessageListenerContainer {
+
+    private int batchSize = 100;
+
+    private long batchTimeout = 200;
+
+    @Nullable
+    private BatchMessageListener batchMessageListener;
+
+    @Nullable
+    private RetryService retryService;
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setBatchTimeout(long batchTimeout) {
+        this.batchTimeout = batchTimeout;
+    }
+
+    public void setBatchMessageListener(BatchMessageListener batchMessageListener) {
+        this.batchMessageListener = batchMessageListener;
+    }
+
+    public void setRetryService(@Nullable RetryService retryService) {
+        this.retryService = retryService;
+    }
+
+    @Override
+    protected void validateConfiguration() {
+        super.validateConfiguration();
+        if (batchMessageListener == null) {
+            throw new IllegalArgumentException("Property 'batchMessageListener' is required");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Property 'batchSize' must be at least 1");
+        }
+        // Batches need the consumer's own session: external transactions and uncached sessions are not supported
+        if (getTransactionManager() != null) {
+            throw new IllegalArgumentException("Batch listener containers use local transactions, not a transaction manager");
+        }
+        if (!isSessionTransacted() && getSessionAcknowledgeMode() != Session.CLIENT_ACKNOWLEDGE) {
+            throw new IllegalArgumentException("Batch listener containers need a transacted or CLIENT_ACKNOWLEDGE session");
+        }
+        if (getCacheLevel() < CACHE_CONSUMER) {
+            throw new IllegalArgumentException("Batch listener containers need cache level CACHE_CONSUMER or CACHE_AUTO");
+        }
+    }
+
+    @Override
+    protected boolean doReceiveAndExecute(Object invoker, @Nullable Session session,
+            @Nullable MessageConsumer consumer, @Nullable TransactionStatus status) throws JMSException {
+        if (session == null || consumer == null) {
+            throw new IllegalStateException("Batch listener container requires a cached session and consumer");
+        }
+
+        List<Message> batch = receiveBatch(consumer);
+        if (batch.isEmpty()) {
+            noMessageReceived(invoker, session);
+            if (shouldCommitAfterNoMessageReceived(session)) {
+                commitIfNecessary(session, null);
+            }
+            return false;
+        }
+
+        messageReceived(invoker, session);
+        if (!isAcceptMessagesWhileStopping() && !isRunning()) {
+            rollbackIfNecessary(session);
+            return true;
+        }
+
+        // Expose the consumer's session so JmsTemplate sends on the same connection factory, such as retries,
+        // join the batch transaction. Unbound before commit, which would otherwise see an external transaction.
+        ConnectionFactory connectionFactory = obtainConnectionFactory();
+        boolean exposeResource = isExposeListenerSession() && !TransactionSynchronizationManager.hasResource(connectionFactory);
+        if (exposeResource) {
+            TransactionSynchronizationManager.bindResource(connectionFactory, new JmsResourceHolder(session));
+        }
+        Throwable failure = null;
+        try {
+            invokeBatch(batch);
+        } catch (Throwable batchFailure) {
+            logger.warn("Batch of " + batch.size() + " messages failed, falling back to per-message processing: "
+                    + batchFailure);
+            try {
+                processIndividually(batch);
+            } catch (Throwable ex) {
+                failure = ex;
+            }
+        } finally {
+            if (exposeResource) {
+                TransactionSynchronizationManager.unbindResource(connectionFactory);
+            }
+        }
+
+        if (failure != null) {
+            rollbackOnExceptionIfNecessary(session, failure);
+            handleListenerException(failure);
+            // Infrastructure failure, let the container recover the consumer
+            if (failure instanceof JMSException jmsException) {
+                throw jmsException;
+            }
+            return true;
+        }
+        commitIfNecessary(session, batch.get(batch.size() - 1));
+        return true;
+    }
+
+    // Waits up to receiveTimeout for the first message, then at most batchTimeout for the rest
+    private List<Message> receiveBatch(MessageConsumer consumer) throws JMSException {
+        Message first = receiveMessage(consumer);
+        if (first == null) {
+            return List.of();
+        }
+
+        List<Message> batch = new ArrayList<>(batchSize);
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchTimeout);
+        while (batch.size() < batchSize && isRunning()) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                break;
+            }
+            Message next = consumer.receive(remaining);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    // One process observation per message, continuing each message's trace; all cover the single batch call
+    private void invokeBatch(List<Message> batch) throws Exception {
+        List<Observation> observations = new ArrayList<>(batch.size());
+        for (Message message : batch) {
+            observations.add(createObservation(message).start());
+        }
+        try {
+            batchMessageListener.onMessages(batch);
+        } catch (Exception ex) {
+            observations.forEach(observation -> observation.error(ex));
+            throw ex;
+        } finally {
+            observations.forEach(Observation::stop);
+        }
+    }
+
+    private void processIndividually(List<Message> batch) throws Exception {
+        for (Message message : batch) {
+            try {
+                createObservation(message).observeChecked(() -> batchMessageListener.onMessages(List.of(message)));
+            } catch (Exception e) {
+                // Re-publish with backoff (or dead-letter) so the rest of the batch can still commit
+                if (retryService == null || !retryService.handleFailure(message, unwrap(e))) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static Exception unwrap(Exception e) {
+        return e instanceof ListenerExecutionFailedException && e.getCause() instanceof Exception cause ? cause : e;
+    }
+}
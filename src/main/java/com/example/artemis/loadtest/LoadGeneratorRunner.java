@@ -0,0 +1,292 @@
+package com.example.artemis.loadtest;
+
+import com.example.artemis.service.ProducerService;
+import com.example.artemis.service.ReactiveJmsService;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for the four scenarios, enabled with the "loadtest" profile.
+ * <p>
+ * Each scenario runs on its own for warmup + duration. Operations are scheduled at a fixed
+ * rate and latency is recorded twice: service time (from actual start) and response time
+ * measured from the intended start, which corrects for coordinated omission when the
+ * client falls behind schedule.
+ * <p>
+ * Blocking scenarios hold a worker thread for the whole operation, so in-flight work is
+ * capped by {@code concurrency}. The reactive scenarios only use the worker to issue the
+ * operation, which makes them directly comparable with their blocking counterparts. In
+ * closed-loop mode ({@code rate} 0) in-flight operations are capped at {@code concurrency}
+ * for both, otherwise reactive workers would issue operations until the executor rejects them.
+ */
+@Component
+@Profile("loadtest")
+public class LoadGeneratorRunner implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadGeneratorRunner.class);
+
+    @FunctionalInterface
+    interface Operation {
+        CompletableFuture<Boolean> execute(String payload) throws Exception;
+    }
+
+    @Value("${app.loadtest.scenarios:sync,async,transaction,request,reactive-send,reactive-request}")
+    private String[] scenarios;
+
+    @Value("${app.loadtest.rate:100}")
+    private int rate;
+
+    @Value("${app.loadtest.concurrency:8}")
+    private int concurrency;
+
+    @Value("${app.loadtest.warmup:5000}")
+    private long warmupMillis;
+
+    @Value("${app.loadtest.duration:30000}")
+    private long durationMillis;
+
+    @Value("${app.loadtest.message-size.distribution:uniform}")
+    private String sizeDistribution;
+
+    @Value("${app.loadtest.message-size.min:128}")
+    private int minSize;
+
+    @Value("${app.loadtest.message-size.max:1024}")
+    private int maxSize;
+
+    @Value("${app.loadtest.transaction-batch-size:10}")
+    private int transactionBatchSize;
+
+    @Value("${app.loadtest.report-dir:target/loadtest}")
+    private String reportDir;
+
+    @Value("${app.loadtest.exit-on-completion:true}")
+    private boolean exitOnCompletion;
+
+    @Value("${app.queue.async}")
+    private String asyncQueueName;
+
+    @Value("${app.queue.request}")
+    private String requestQueueName;
+
+    @Value("${app.queue.reply}")
+    private String replyQueueName;
+
+    @Value("${app.queue.sync}")
+    private String syncQueueName;
+
+    @Value("${app.queue.transaction}")
+    private String transactionQueueName;
+
+    @Value("${app.queue.reactive}")
+    private String reactiveQueueName;
+
+    private final ProducerService producerService;
+    private final ReactiveJmsService reactiveJmsService;
+    private final ApplicationContext context;
+    private String payloadSource;
+
+    public LoadGeneratorRunner(ProducerService producerService, ReactiveJmsService reactiveJmsService,
+            ApplicationContext context) {
+        this.producerService = producerService;
+        this.reactiveJmsService = reactiveJmsService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        payloadSource = randomText(maxSize);
+        logger.info("---- LOAD TEST: scenarios={} rate={}/s concurrency={} warmup={}ms duration={}ms size={}[{}..{}] ----",
+                String.join(",", scenarios), rate, concurrency, warmupMillis, durationMillis,
+                sizeDistribution, minSize, maxSize);
+
+        for (String scenario : scenarios) {
+            runScenario(scenario.trim(), operation(scenario.trim()));
+        }
+
+        logger.info("---- END LOAD TEST ----");
+        if (exitOnCompletion) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    private Operation operation(String scenario) {
+        return switch (scenario) {
+            case "sync" -> payload -> {
+                producerService.send(syncQueueName, payload);
+                return CompletableFuture.completedFuture(true);
+            };
+            case "async" -> payload -> {
+                producerService.sendAsync(asyncQueueName, payload);
+                return CompletableFuture.completedFuture(true);
+            };
+            case "transaction" -> payload -> {
+                List<String> batch = new ArrayList<>(transactionBatchSize);
+                for (int i = 0; i < transactionBatchSize; i++) {
+                    batch.add(payload);
+                }
+                producerService.sendTransaction(transactionQueueName, batch);
+                return CompletableFuture.completedFuture(true);
+            };
+            case "request" -> payload -> CompletableFuture.completedFuture(
+                    producerService.sendRequest(requestQueueName, replyQueueName, payload) != null);
+            case "reactive-send" -> payload -> reactiveJmsService.send(reactiveQueueName, payload)
+                    .thenReturn(true).toFuture();
+            case "reactive-request" -> payload -> reactiveJmsService.request(requestQueueName, payload)
+                    .map(reply -> true).defaultIfEmpty(false).toFuture();
+            default -> throw new IllegalArgumentException("Unknown load test scenario: " + scenario);
+        };
+    }
+
+    private void runScenario(String scenario, Operation operation) throws InterruptedException {
+        Histogram serviceTime = new ConcurrentHistogram(3);
+        Histogram responseTime = new ConcurrentHistogram(3);
+        LongAdder completed = new LongAdder();
+        LongAdder errors = new LongAdder();
+        AtomicLong sequence = new AtomicLong();
+        AtomicLong inFlight = new AtomicLong();
+        Semaphore closedLoopPermits = new Semaphore(concurrency);
+
+        long intervalNanos = rate > 0 ? TimeUnit.SECONDS.toNanos(1) / rate : 0;
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.MILLISECONDS.toNanos(warmupMillis);
+        long end = measureFrom + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                while (true) {
+                    long intended;
+                    if (intervalNanos > 0) {
+                        // Open loop: each operation has a fixed slot regardless of how long earlier ones took
+                        intended = start + sequence.getAndIncrement() * intervalNanos;
+                        if (intended >= end) {
+                            return;
+                        }
+                        long wait;
+                        while ((wait = intended - System.nanoTime()) > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                    } else {
+                        // Closed loop: wait for an in-flight operation to complete before issuing the next
+                        closedLoopPermits.acquireUninterruptibly();
+                        intended = System.nanoTime();
+                        if (intended >= end) {
+                            closedLoopPermits.release();
+                            return;
+                        }
+                    }
+
+                    long actual = System.nanoTime();
+                    CompletableFuture<Boolean> result;
+                    try {
+                        result = operation.execute(nextPayload());
+                    } catch (Exception e) {
+                        result = CompletableFuture.failedFuture(e);
+                    }
+
+                    inFlight.incrementAndGet();
+                    result.whenComplete((ok, error) -> {
+                        long done = System.nanoTime();
+                        if (error != null) {
+                            logger.debug("Load test {} operation failed: {}", scenario, error.getMessage());
+                        }
+                        if (intended >= measureFrom) {
+                            if (error == null && ok) {
+                                serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(done - actual));
+                                responseTime.recordValue(TimeUnit.NANOSECONDS.toMicros(done - intended));
+                                completed.increment();
+                            } else {
+                                errors.increment();
+                            }
+                        }
+                        inFlight.decrementAndGet();
+                        if (intervalNanos == 0) {
+                            closedLoopPermits.release();
+                        }
+                    });
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        while (inFlight.get() > 0) {
+            Thread.sleep(10);
+        }
+
+        double elapsedSeconds = (System.nanoTime() - measureFrom) / 1e9;
+        logger.info("[{}] completed={} errors={} throughput={} msg/s",
+                scenario, completed.sum(), errors.sum(), String.format("%.1f", completed.sum() / elapsedSeconds));
+        logPercentiles(scenario, "service time", serviceTime);
+        logPercentiles(scenario, "response time (CO-corrected)", responseTime);
+        writeReport(scenario + "-service", serviceTime);
+        writeReport(scenario + "-response", responseTime);
+    }
+
+    private static void logPercentiles(String scenario, String label, Histogram histogram) {
+        logger.info("[{}] {} us: p50={} p90={} p99={} p99.9={} max={}",
+                scenario, label,
+                histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(90),
+                histogram.getValueAtPercentile(99),
+                histogram.getValueAtPercentile(99.9),
+                histogram.getMaxValue());
+    }
+
+    // Full percentile distribution in .hgrm format, plottable with HdrHistogram's plotter
+    private void writeReport(String name, Histogram histogram) {
+        Path file = Path.of(reportDir, name + ".hgrm");
+        try {
+            Files.createDirectories(file.getParent());
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                histogram.outputPercentileDistribution(out, 1000.0); // report in ms
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to write load test report {}: {}", file, e.getMessage());
+        }
+    }
+
+    private String nextPayload() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int size = switch (sizeDistribution) {
+            case "fixed" -> maxSize;
+            case "gaussian" -> (int) Math.round((minSize + maxSize) / 2.0 + random.nextGaussian() * (maxSize - minSize) / 6.0);
+            default -> random.nextInt(minSize, maxSize + 1);
+        };
+        return payloadSource.substring(0, Math.max(minSize, Math.min(size, maxSize)));
+    }
+
+    private static String randomText(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.artemis.monitoring;
+
+import com.example.artemis.config.InstrumentedJmsPoolConnectionFactory;
+
+import jakarta.jms.ConnectionFactory;
+
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+import org.messaginghub.pooled.jms.JmsPoolConnectionFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JMS configuration at /actuator/jms: pool limits and borrow settings, the Artemis client
+ * settings behind each pool, templates and running listener containers.
+ * <p>
+ * Replaces the startup configuration check. Reading settings never opens a connection,
+ * so the endpoint is safe to call while the broker is unreachable.
+ */
+@Component
+@Endpoint(id = "jms")
+public class JmsDiagnosticsEndpoint {
+
+    private final Map<String, JmsPoolConnectionFactory> pools;
+    private final Map<String, JmsTemplate> templates;
+    private final JmsListenerEndpointRegistry listenerRegistry;
+
+    public JmsDiagnosticsEndpoint(Map<String, JmsPoolConnectionFactory> pools, Map<String, JmsTemplate> templates,
+            JmsListenerEndpointRegistry listenerRegistry) {
+        this.pools = pools;
+        this.templates = templates;
+        this.listenerRegistry = listenerRegistry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> jms() {
+        Map<String, Object> pooling = new LinkedHashMap<>();
+        pools.forEach((name, pool) -> pooling.put(name, describe(pool)));
+
+        Map<String, Object> templating = new LinkedHashMap<>();
+        templates.forEach((name, template) -> templating.put(name, describe(template)));
+
+        Map<String, Object> listening = new LinkedHashMap<>();
+        for (String id : listenerRegistry.getListenerContainerIds()) {
+            if (listenerRegistry.getListenerContainer(id) instanceof DefaultMessageListenerContainer container) {
+                listening.put(id, describe(container));
+            }
+        }
+
+        Map<String, Object> jms = new LinkedHashMap<>();
+        jms.put("pools", pooling);
+        jms.put("templates", templating);
+        jms.put("listeners", listening);
+        return jms;
+    }
+
+    private static Map<String, Object> describe(JmsPoolConnectionFactory pool) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("maxConnections", pool.getMaxConnections());
+        settings.put("maxSessionsPerConnection", pool.getMaxSessionsPerConnection());
+        settings.put("blockIfSessionPoolIsFull", pool.isBlockIfSessionPoolIsFull());
+        settings.put("blockIfSessionPoolIsFullTimeout", pool.getBlockIfSessionPoolIsFullTimeout());
+        settings.put("connectionIdleTimeout", pool.getConnectionIdleTimeout());
+        settings.put("connectionCheckInterval", pool.getConnectionCheckInterval());
+        settings.put("useProviderJMSContext", pool.isUseProviderJMSContext());
+        settings.put("numConnections", pool.getNumConnections());
+        if (pool instanceof InstrumentedJmsPoolConnectionFactory instrumented) {
+            settings.put("sessionsOnLoan", instrumented.getLoans().size());
+            settings.put("pendingBorrows", instrumented.getPendingBorrows());
+            settings.put("waiters", instrumented.getWaiters());
+        }
+        if (pool.getConnectionFactory() instanceof ActiveMQConnectionFactory amq) {
+            settings.put("serverLocator", describe(amq.getServerLocator()));
+        }
+        return settings;
+    }
+
+    private static Map<String, Object> describe(ServerLocator locator) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("initialConnectAttempts", locator.getInitialConnectAttempts());
+        settings.put("reconnectAttempts", locator.getReconnectAttempts());
+        settings.put("retryInterval", locator.getRetryInterval());
+        settings.put("retryIntervalMultiplier", locator.getRetryIntervalMultiplier());
+        settings.put("maxRetryInterval", locator.getMaxRetryInterval());
+        settings.put("confirmationWindowSize", locator.getConfirmationWindowSize());
+        settings.put("consumerWindowSize", locator.getConsumerWindowSize());
+        settings.put("blockOnDurableSend", locator.isBlockOnDurableSend());
+        settings.put("blockOnNonDurableSend", locator.isBlockOnNonDurableSend());
+        settings.put("blockOnAcknowledge", locator.isBlockOnAcknowledge());
+        settings.put("ackBatchSize", locator.getAckBatchSize());
+        settings.put("producerMaxRate", locator.getProducerMaxRate());
+        settings.put("consumerMaxRate", locator.getConsumerMaxRate());
+        settings.put("callTimeout", locator.getCallTimeout());
+        settings.put("callFailoverTimeout", locator.getCallFailoverTimeout());
+        settings.put("clientFailureCheckPeriod", locator.getClientFailureCheckPeriod());
+        settings.put("connectionTTL", locator.getConnectionTTL());
+        settings.put("connectionLoadBalancingPolicyClassName", locator.getConnectionLoadBalancingPolicyClassName());
+        settings.put("minLargeMessageSize", locator.getMinLargeMessageSize());
+        settings.put("useGlobalPools", locator.isUseGlobalPools());
+        settings.put("scheduledThreadPoolMaxSize", locator.getScheduledThreadPoolMaxSize());
+        settings.put("threadPoolMaxSize", locator.getThreadPoolMaxSize());
+        settings.put("autoGroup", locator.isAutoGroup());
+        settings.put("preAcknowledge", locator.isPreAcknowledge());
+        settings.put("cacheLargeMessagesClient", locator.isCacheLargeMessagesClient());
+        return settings;
+    }
+
+    private Map<String, Object> describe(JmsTemplate template) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("connectionFactory", nameOf(template.getConnectionFactory()));
+        settings.put("sessionTransacted", template.isSessionTransacted());
+        settings.put("acknowledgeMode", template.getSessionAcknowledgeMode());
+        settings.put("receiveTimeout", template.getReceiveTimeout());
+        settings.put("timeToLive", template.getTimeToLive());
+        return settings;
+    }
+
+    private Map<String, Object> describe(DefaultMessageListenerContainer container) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("destination", container.getDestinationName());
+        settings.put("connectionFactory", nameOf(container.getConnectionFactory()));
+        settings.put("running", container.isRunning());
+        settings.put("concurrentConsumers", container.getConcurrentConsumers());
+        settings.put("maxConcurrentConsumers", container.getMaxConcurrentConsumers());
+        settings.put("activeConsumers", container.getActiveConsumerCount());
+        settings.put("scheduledConsumers", container.getScheduledConsumerCount());
+        settings.put("cacheLevel", container.getCacheLevel());
+        settings.put("sessionTransacted", container.isSessionTransacted());
+        settings.put("acknowledgeMode", container.getSessionAcknowledgeMode());
+        return settings;
+    }
+
+    // Bean name of a pooled connection factory, or its type for unpooled ones
+    private String nameOf(ConnectionFactory connectionFactory) {
+        if (connectionFactory == null) {
+            return null;
+        }
+        return pools.entrySet().stream()
+                .filter(entry -> entry.getValue() == connectionFactory)
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElse(connectionFactory.getClass().getName());
+    }
+}
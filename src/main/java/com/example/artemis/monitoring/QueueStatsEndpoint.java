@@ -0,0 +1,24 @@
+package com.example.artemis.monitoring;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+// Backlog dashboard at /actuator/queues, per broker node, served from the poller's cache without calling the brokers
+@Component
+@Endpoint(id = "queues")
+public class QueueStatsEndpoint {
+
+    private final QueueStatsPoller poller;
+
+    public QueueStatsEndpoint(QueueStatsPoller poller) {
+        this.poller = poller;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, QueueStatsPoller.QueueStats>> queues() {
+        return poller.getStats();
+    }
+}
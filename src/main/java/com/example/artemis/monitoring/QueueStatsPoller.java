@@ -0,0 +1,298 @@
+package com.example.artemis.monitoring;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import jakarta.jms.TemporaryQueue;
+
+import org.apache.activemq.artemis.api.core.management.ResourceNames;
+import org.apache.activemq.artemis.api.jms.management.JMSManagementHelper;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jms.connection.SingleConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Polls Artemis management ({@code activemq.management} request/reply) for backlog statistics
+ * of the configured queues and caches the latest sample per node and queue.
+ * <p>
+ * Management only reports the node it is asked, so every broker listed in
+ * {@code spring.artemis.broker-url} is polled over its own single connection, pinned to that
+ * node. Polling runs on its own thread, so neither the pooled connections nor actuator
+ * scrapes ever wait on a broker. Enqueue and dequeue rates are derived from each node's
+ * cumulative counters between two polls.
+ */
+@Component
+public class QueueStatsPoller {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueueStatsPoller.class);
+
+    /** Latest statistics of one queue on one node; rates are per second, null until two polls succeeded. */
+    public record QueueStats(String node, String queue, long messageCount, int consumerCount, long messagesAdded,
+            long messagesAcknowledged, Double enqueueRate, Double dequeueRate, Long oldestMessageAgeMillis,
+            Instant sampledAt, String error) {
+    }
+
+    @Value("${app.queue-stats.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.queue-stats.interval:10000}")
+    private long intervalMillis;
+
+    @Value("${app.queue-stats.timeout:2000}")
+    private long timeoutMillis;
+
+    @Value("${app.queue-stats.management-address:activemq.management}")
+    private String managementAddress;
+
+    @Value("${app.queue-stats.queues}")
+    private String[] queues;
+
+    @Value("${spring.artemis.broker-url}")
+    private String brokerUrl;
+
+    @Value("${spring.artemis.user}")
+    private String artemisUser;
+
+    @Value("${spring.artemis.password}")
+    private String artemisPassword;
+
+    private final MeterRegistry meterRegistry;
+    private final List<Node> nodes = new ArrayList<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "queue-stats-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public QueueStatsPoller(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // One broker of the URL list with its own management connection and samples
+    private static final class Node {
+
+        private final String name;
+        private final SingleConnectionFactory connectionFactory;
+        private final JmsTemplate jmsTemplate;
+        private final Map<String, QueueStats> latest = new ConcurrentHashMap<>();
+        private volatile boolean failing;
+
+        private Node(String name, SingleConnectionFactory connectionFactory) {
+            this.name = name;
+            this.connectionFactory = connectionFactory;
+            this.jmsTemplate = new JmsTemplate(connectionFactory);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queues = Arrays.stream(queues).map(String::trim).filter(queue -> !queue.isEmpty()).distinct().toArray(String[]::new);
+        for (String nodeUrl : nodeUrls(brokerUrl)) {
+            ActiveMQConnectionFactory factory = new ActiveMQConnectionFactory(nodeUrl);
+            factory.setUser(artemisUser);
+            factory.setPassword(artemisPassword);
+            factory.setUseTopologyForLoadBalancing(false); // reconnect to this node only, never to another cluster member
+
+            SingleConnectionFactory connectionFactory = new SingleConnectionFactory(factory);
+            connectionFactory.setReconnectOnException(true);
+            nodes.add(new Node(nodeUrl.split("\\?", 2)[0], connectionFactory));
+        }
+        for (Node node : nodes) {
+            for (String queue : queues) {
+                gauge("artemis.queue.messages", node, queue, stats -> stats.messageCount());
+                gauge("artemis.queue.consumers", node, queue, stats -> stats.consumerCount());
+                gauge("artemis.queue.enqueue.rate", node, queue, stats -> orNaN(stats.enqueueRate()));
+                gauge("artemis.queue.dequeue.rate", node, queue, stats -> orNaN(stats.dequeueRate()));
+                gauge("artemis.queue.oldest.message.age", node, queue,
+                        stats -> stats.oldestMessageAgeMillis() != null ? stats.oldestMessageAgeMillis() / 1000.0 : 0);
+            }
+        }
+        scheduler.scheduleWithFixedDelay(this::poll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        nodes.forEach(node -> node.connectionFactory.destroy());
+    }
+
+    /** Latest sample per node and queue, in configuration order. */
+    public Map<String, Map<String, QueueStats>> getStats() {
+        Map<String, Map<String, QueueStats>> stats = new LinkedHashMap<>();
+        for (Node node : nodes) {
+            Map<String, QueueStats> nodeStats = new LinkedHashMap<>();
+            for (String queue : queues) {
+                QueueStats sample = node.latest.get(queue);
+                if (sample != null) {
+                    nodeStats.put(queue, sample);
+                }
+            }
+            stats.put(node.name, nodeStats);
+        }
+        return stats;
+    }
+
+    // "(tcp://a:61617,tcp://b:61717)?params" becomes one URL per broker, each with the shared params
+    static List<String> nodeUrls(String brokerUrl) {
+        String url = brokerUrl.trim();
+        if (!url.startsWith("(")) {
+            return List.of(url);
+        }
+        int close = url.indexOf(')');
+        String params = url.substring(close + 1);
+        return Arrays.stream(url.substring(1, close).split(","))
+                .map(String::trim)
+                .filter(node -> !node.isEmpty())
+                .map(node -> node + params)
+                .toList();
+    }
+
+    // Gauges read the cached sample only; NaN until the queue has been sampled successfully
+    private void gauge(String name, Node node, String queue, ToDoubleFunction<QueueStats> value) {
+        Gauge.builder(name, node.latest, samples -> {
+                    QueueStats stats = samples.get(queue);
+                    return stats == null || stats.error() != null ? Double.NaN : value.applyAsDouble(stats);
+                })
+                .tag("node", node.name)
+                .tag("queue", queue)
+                .register(meterRegistry);
+    }
+
+    void poll() {
+        for (Node node : nodes) {
+            poll(node);
+        }
+    }
+
+    private void poll(Node node) {
+        try {
+            // One session and temporary reply queue for all requests of a poll
+            node.jmsTemplate.execute(session -> {
+                TemporaryQueue replyTo = session.createTemporaryQueue();
+                try (MessageProducer producer = session.createProducer(session.createQueue(managementAddress));
+                        MessageConsumer consumer = session.createConsumer(replyTo)) {
+                    for (String queue : queues) {
+                        node.latest.put(queue, sample(node, session, producer, consumer, replyTo, queue));
+                    }
+                } finally {
+                    replyTo.delete();
+                }
+                return null;
+            }, true);
+            if (node.failing) {
+                logger.info("Queue statistics polling of {} recovered", node.name);
+                node.failing = false;
+            }
+        } catch (Exception e) {
+            // Replace the last good samples so gauges and the endpoint don't freeze while the node is unreachable
+            Instant now = Instant.now();
+            for (String queue : queues) {
+                node.latest.put(queue, new QueueStats(node.name, queue, 0, 0, 0, 0, null, null, null, now, e.getMessage()));
+            }
+            if (!node.failing) {
+                logger.warn("Queue statistics polling of {} failed, retrying every {} ms: {}",
+                        node.name, intervalMillis, e.getMessage());
+                node.failing = true;
+            }
+        }
+    }
+
+    private QueueStats sample(Node node, Session session, MessageProducer producer, MessageConsumer consumer,
+            TemporaryQueue replyTo, String queue) throws JMSException {
+        Instant now = Instant.now();
+        try {
+            long messageCount = number(attribute(session, producer, consumer, replyTo, queue, "messageCount")).longValue();
+            int consumerCount = number(attribute(session, producer, consumer, replyTo, queue, "consumerCount")).intValue();
+            long messagesAdded = number(attribute(session, producer, consumer, replyTo, queue, "messagesAdded")).longValue();
+            long messagesAcknowledged = number(attribute(session, producer, consumer, replyTo, queue, "messagesAcknowledged")).longValue();
+            Object firstMessageAge = attribute(session, producer, consumer, replyTo, queue, "firstMessageAge");
+
+            Double enqueueRate = null;
+            Double dequeueRate = null;
+            QueueStats previous = node.latest.get(queue);
+            if (previous != null && previous.error() == null) {
+                double seconds = (now.toEpochMilli() - previous.sampledAt().toEpochMilli()) / 1000.0;
+                if (seconds > 0) {
+                    // Counters restart from zero with the broker; report no rate rather than a negative one
+                    enqueueRate = messagesAdded >= previous.messagesAdded()
+                            ? (messagesAdded - previous.messagesAdded()) / seconds : null;
+                    dequeueRate = messagesAcknowledged >= previous.messagesAcknowledged()
+                            ? (messagesAcknowledged - previous.messagesAcknowledged()) / seconds : null;
+                }
+            }
+            return new QueueStats(node.name, queue, messageCount, consumerCount, messagesAdded, messagesAcknowledged,
+                    enqueueRate, dequeueRate, firstMessageAge != null ? number(firstMessageAge).longValue() : null,
+                    now, null);
+        } catch (ManagementException e) {
+            logger.debug("Queue statistics unavailable for {} on {}: {}", queue, node.name, e.getMessage());
+            return new QueueStats(node.name, queue, 0, 0, 0, 0, null, null, null, now, e.getMessage());
+        }
+    }
+
+    private Object attribute(Session session, MessageProducer producer, MessageConsumer consumer,
+            TemporaryQueue replyTo, String queue, String attribute) throws JMSException, ManagementException {
+        Message request = session.createMessage();
+        request.setJMSReplyTo(replyTo);
+        JMSManagementHelper.putAttribute(request, ResourceNames.QUEUE + queue, attribute);
+        producer.send(request);
+
+        Message reply = consumer.receive(timeoutMillis);
+        if (reply == null) {
+            throw new JMSException("No management reply for " + queue + "." + attribute + " within " + timeoutMillis + " ms");
+        }
+        try {
+            if (!JMSManagementHelper.hasOperationSucceeded(reply)) {
+                throw new ManagementException(String.valueOf(JMSManagementHelper.getResult(reply)));
+            }
+            return JMSManagementHelper.getResult(reply);
+        } catch (JMSException | ManagementException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ManagementException("Unreadable reply for " + queue + "." + attribute + ": " + e.getMessage());
+        }
+    }
+
+    private static Number number(Object value) throws ManagementException {
+        if (value instanceof Number number) {
+            return number;
+        }
+        throw new ManagementException("Expected a number but got " + value);
+    }
+
+    private static double orNaN(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    // Failure reported by the broker for one queue, e.g. the queue does not exist
+    private static class ManagementException extends Exception {
+
+        ManagementException(String message) {
+            super(message);
+        }
+    }
+}
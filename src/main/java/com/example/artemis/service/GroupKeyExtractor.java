@@ -0,0 +1,12 @@
+package com.example.artemis.service;
+
+/**
+ * Derives the message group ({@code JMSXGroupID}) for an outgoing message. Messages with
+ * the same group are delivered to one consumer at a time, in order.
+ */
+@FunctionalInterface
+public interface GroupKeyExtractor {
+
+    /** @return the group ID, or {@code null} to send the message ungrouped */
+    String groupIdFor(String queueName, String payload);
+}
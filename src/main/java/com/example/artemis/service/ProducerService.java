@@ -1,5 +1,9 @@
 package com.example.artemis.service;
 
+import com.example.artemis.tracing.LatencyRecorder;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.annotation.PostConstruct;
 import jakarta.jms.JMSException;
 import jakarta.jms.Message;
@@ -11,7 +15,6 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jms.JmsException;
 import org.springframework.jms.core.JmsTemplate;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -30,23 +33,38 @@ public class ProducerService {
     @Value("${app.consumer.tx-callback-url}")
     private String txConsumerCallbackUrl;
 
+    @Value("${app.consumer.tx-callback-enabled:true}")
+    private boolean txConsumerCallbackEnabled;
+
+    @Value("${app.batch.transaction.enabled}")
+    private boolean transactionBatchEnabled;
+
     // @Value("${app.consumer.sync-callback-url}")
     // private String syncConsumerCallbackUrl;
 
-    private final JmsTemplate defaultJmsTemplate;
+    private final TrafficLanes trafficLanes;
     private final JmsTemplate syncJmsTemplate;
     private final JmsTemplate txJmsTemplate;
     private final RestTemplate restTemplate;
+    private final LatencyRecorder latencyRecorder;
+    private final ObservationRegistry observationRegistry;
+    private final GroupKeyExtractor groupKeyExtractor;
 
     public ProducerService(
-            @Qualifier("defaultJmsTemplate") JmsTemplate defaultJmsTemplate,
+            TrafficLanes trafficLanes,
             @Qualifier("syncJmsTemplate") JmsTemplate syncJmsTemplate,
             @Qualifier("txJmsTemplate") JmsTemplate txJmsTemplate,
-            RestTemplate restTemplate) {
-        this.defaultJmsTemplate = defaultJmsTemplate;
+            RestTemplate restTemplate,
+            LatencyRecorder latencyRecorder,
+            ObservationRegistry observationRegistry,
+            GroupKeyExtractor groupKeyExtractor) {
+        this.trafficLanes = trafficLanes;
         this.syncJmsTemplate = syncJmsTemplate;
         this.txJmsTemplate = txJmsTemplate;
         this.restTemplate = restTemplate;
+        this.latencyRecorder = latencyRecorder;
+        this.observationRegistry = observationRegistry;
+        this.groupKeyExtractor = groupKeyExtractor;
     }
 
     @PostConstruct
@@ -56,11 +74,19 @@ public class ProducerService {
 
     /** Scenario 1: Synchronous send */
     // blockOnAcknowledge = true
+    // JMSXGroupID keeps messages of the same entity in order across concurrent consumers
+    // Always on the sync lane (syncPooledConnectionFactory, app.lanes.sync.priority), whatever the destination
     public void send(String queueName, String message) {
         LocalDateTime now = LocalDateTime.now();
+        String groupId = groupKeyExtractor.groupIdFor(queueName, message);
         try {
-            syncJmsTemplate.convertAndSend(queueName, message);
-            logger.info("SYNC message sent: {}", message);
+            syncJmsTemplate.convertAndSend(queueName, message, msg -> {
+                if (groupId != null) {
+                    msg.setStringProperty("JMSXGroupID", groupId);
+                }
+                return latencyRecorder.stamp(msg);
+            });
+            logger.info("SYNC message sent: {} groupId={}", message, groupId);
 
             // Optional: Trigger the consumer REST API to process the batch immediately after sending
             // Only do this when using JmsTemplate receive() NOT JmsListener
@@ -75,6 +101,7 @@ public class ProducerService {
 
     /** Scenario 2: Transactional send */
     // Session transacted = true
+    // Always on the bulk lane (defaultPooledConnectionFactory, app.lanes.bulk.priority), whatever the destination
     public void sendTransaction(String queueName, List<String> messages) {
         String batchId = UUID.randomUUID().toString();
         int batchSize = messages.size();
@@ -82,10 +109,12 @@ public class ProducerService {
         try {
             txJmsTemplate.execute(session -> {
                 var producer = session.createProducer(session.createQueue(queueName));
+                producer.setPriority(txJmsTemplate.getPriority()); // bulk lane
                 for (String msg : messages) {
                     TextMessage msgText = session.createTextMessage(msg);
                     msgText.setStringProperty("batchId", batchId);
                     msgText.setIntProperty("batchSize", batchSize);
+                    latencyRecorder.stamp(msgText);
                     producer.send(msgText);
                     logger.info("Transactional message sent: {}", msg);
                 }
@@ -94,7 +123,10 @@ public class ProducerService {
                 logger.info("Transaction {} sent and committed with {} messages", batchId, batchSize);
 
                 // Optional: Trigger the consumer REST API to process the batch immediately after sending
-                restTemplate.postForObject(txConsumerCallbackUrl, batchId, String.class);
+                // Not while the batch listener consumes the queue, the callback would drain and drop its messages
+                if (txConsumerCallbackEnabled && !transactionBatchEnabled) {
+                    restTemplate.postForObject(txConsumerCallbackUrl, batchId, String.class);
+                }
 
                 return null;
             }, true); 
@@ -106,37 +138,49 @@ public class ProducerService {
 
     /** Scenario 3: Asynchronous send */
     // blockOnAcknowledge = false 
-    @Async
     public void sendAsync(String queueName, String message) {
         try {
-            defaultJmsTemplate.convertAndSend(queueName, message);
+            trafficLanes.templateFor(queueName).convertAndSend(queueName, message, latencyRecorder::stamp);
             logger.info("ASYNC send invoked for message: {}", message);
-        } catch (Exception e) {
+        } catch (JmsException e) {
             logger.error("Failed to send ASYNC message: {}", message, e);
+            throw e;
         }
     }
 
     /** Scenario 4: Request/Reply send */
     // Use durable queue for reply
+    // Observed as one span so the publish, remote processing and reply spans nest under it
     public String sendRequest(String requestQueueName, String replyQueueName, String message) {
+        return Observation.createNotStarted("artemis.request.reply", observationRegistry)
+                .lowCardinalityKeyValue("queue", requestQueueName)
+                .observe(() -> doSendRequest(requestQueueName, replyQueueName, message));
+    }
+
+    private String doSendRequest(String requestQueueName, String replyQueueName, String message) {
         // Generate a unique correlation ID for this request
         String correlationId = UUID.randomUUID().toString();
 
         // Set a custom reply selector so we only receive our message
         String selector = "JMSCorrelationID = '" + correlationId + "'";
+        long[] requestSentAt = new long[1];
+        JmsTemplate jmsTemplate = trafficLanes.templateFor(requestQueueName);
 
         try {
             // Send the request message with the correlation ID and reply queue
-            defaultJmsTemplate.send(requestQueueName, session -> {
+            jmsTemplate.send(requestQueueName, session -> {
                 TextMessage msg = session.createTextMessage(message);
                 msg.setJMSReplyTo(session.createQueue(replyQueueName));
                 msg.setJMSCorrelationID(correlationId);
+                latencyRecorder.stamp(msg);
+                requestSentAt[0] = msg.getLongProperty(LatencyRecorder.SENT_AT_PROPERTY);
                 return msg;
             });
 
-            Message reply = defaultJmsTemplate.receiveSelected(replyQueueName, selector);
+            Message reply = jmsTemplate.receiveSelected(replyQueueName, selector);
 
             if (reply != null) {
+                latencyRecorder.recordRoundTrip(requestQueueName, "blocking", requestSentAt[0], reply);
                 String replyText = ((TextMessage) reply).getText();
                 logger.info("Request message sent: '{}', received message: '{}', correlationId: {}", 
                     message, replyText, correlationId);
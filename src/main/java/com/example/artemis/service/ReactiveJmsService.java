@@ -0,0 +1,195 @@
+package com.example.artemis.service;
+
+import com.example.artemis.tracing.LatencyRecorder;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.jms.Connection;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.jms.support.JmsUtils;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reactive facade over the blocking JMS client.
+ * <p>
+ * The Artemis JMS API blocks, so sends run on a bounded executor whose thread and queue
+ * limits cap in-flight work; a full queue fails the {@link Mono} instead of buffering.
+ * Cancellation never interrupts a send in progress, which would break the pooled session.
+ * Request/reply does not hold a thread while waiting: replies arrive on a shared reply
+ * queue and complete the pending {@link Mono} by correlation ID.
+ * Receives pull from the broker only as downstream demand arrives, and the consumer
+ * window size of the receive connection factory (0 by default) stops the client from
+ * buffering ahead of that demand. That factory is unpooled, so each subscription owns its
+ * connection, and it is kept out of the context so health checks do not open connections.
+ */
+@Service
+public class ReactiveJmsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveJmsService.class);
+
+    @Value("${spring.jms.template.receive-timeout}")
+    private int receiveTimeout;
+
+    @Value("${app.queue.reactive-reply}")
+    private String reactiveReplyQueueName;
+
+    private final TrafficLanes trafficLanes;
+    private final ActiveMQConnectionFactory reactiveConnectionFactory;
+    private final LatencyRecorder latencyRecorder;
+    private final ThreadPoolExecutor jmsExecutor;
+    private final Map<String, PendingReply> pendingReplies = new ConcurrentHashMap<>();
+
+    // Request awaiting its reply; the send timestamp feeds the same round-trip segments as the blocking sendRequest
+    private static final class PendingReply {
+
+        private final Sinks.One<String> reply = Sinks.one();
+        private final String requestQueueName;
+        private volatile long sentAtMicros;
+
+        private PendingReply(String requestQueueName) {
+            this.requestQueueName = requestQueueName;
+        }
+    }
+
+    public ReactiveJmsService(
+            TrafficLanes trafficLanes,
+            LatencyRecorder latencyRecorder,
+            @Value("${spring.artemis.broker-url}") String brokerUrl,
+            @Value("${spring.artemis.user}") String artemisUser,
+            @Value("${spring.artemis.password}") String artemisPassword,
+            @Value("${app.reactive.consumer-window-size}") int consumerWindowSize,
+            @Value("${app.reactive.scheduler-threads:32}") int schedulerThreads,
+            @Value("${app.reactive.scheduler-queue-size:10000}") int schedulerQueueSize) {
+        this.trafficLanes = trafficLanes;
+        this.latencyRecorder = latencyRecorder;
+        this.reactiveConnectionFactory = new ActiveMQConnectionFactory(brokerUrl);
+        this.reactiveConnectionFactory.setUser(artemisUser);
+        this.reactiveConnectionFactory.setPassword(artemisPassword);
+        this.reactiveConnectionFactory.setConsumerWindowSize(consumerWindowSize); // 0 = broker delivers only on receive(), i.e. on demand
+        AtomicInteger threadCount = new AtomicInteger();
+        this.jmsExecutor = new ThreadPoolExecutor(schedulerThreads, schedulerThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(schedulerQueueSize),
+                runnable -> new Thread(runnable, "jms-reactive-" + threadCount.incrementAndGet()));
+        this.jmsExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jmsExecutor.shutdown();
+        reactiveConnectionFactory.close();
+    }
+
+    public Mono<Void> send(String queueName, String message) {
+        return offload(() -> trafficLanes.templateFor(queueName).convertAndSend(queueName, message, latencyRecorder::stamp));
+    }
+
+    private Mono<Void> offload(Runnable jmsCall) {
+        return Mono.fromFuture(() -> CompletableFuture.runAsync(jmsCall, jmsExecutor));
+    }
+
+    /** Completes with the reply text, or empty if no reply arrives within the receive timeout. */
+    public Mono<String> request(String requestQueueName, String message) {
+        return Mono.defer(() -> {
+            String correlationId = UUID.randomUUID().toString();
+            PendingReply pending = new PendingReply(requestQueueName);
+            pendingReplies.put(correlationId, pending);
+
+            return offload(() -> trafficLanes.templateFor(requestQueueName).send(requestQueueName, session -> {
+                        TextMessage msg = session.createTextMessage(message);
+                        msg.setJMSReplyTo(session.createQueue(reactiveReplyQueueName));
+                        msg.setJMSCorrelationID(correlationId);
+                        latencyRecorder.stamp(msg);
+                        pending.sentAtMicros = msg.getLongProperty(LatencyRecorder.SENT_AT_PROPERTY);
+                        return msg;
+                    }))
+                    .then(pending.reply.asMono().timeout(Duration.ofMillis(receiveTimeout), Mono.empty()))
+                    .doFinally(signal -> pendingReplies.remove(correlationId));
+        });
+    }
+
+    // Shared reply consumer: the reply queue must not be shared with other application instances
+    @JmsListener(destination = "${app.queue.reactive-reply}", containerFactory = "interactiveJmsListenerContainerFactory")
+    public void onReply(TextMessage reply) throws JMSException {
+        PendingReply pending = pendingReplies.remove(reply.getJMSCorrelationID());
+        if (pending != null) {
+            latencyRecorder.recordRoundTrip(pending.requestQueueName, "reactive", pending.sentAtMicros, reply);
+            pending.reply.tryEmitValue(reply.getText());
+        } else {
+            logger.warn("Discarding reply with unknown or timed-out correlationId: {}", reply.getJMSCorrelationID());
+        }
+    }
+
+    /**
+     * Streams messages from a queue, receiving one message per unit of downstream demand.
+     * Each subscription owns its connection; messages are acknowledged when received.
+     */
+    public Flux<Message> receive(String queueName) {
+        return Flux.create(sink -> {
+            Scheduler.Worker worker = Schedulers.boundedElastic().createWorker();
+            Connection connection = null;
+            MessageConsumer consumer;
+            try {
+                connection = reactiveConnectionFactory.createConnection();
+                Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+                consumer = session.createConsumer(session.createQueue(queueName));
+                connection.start();
+            } catch (JMSException e) {
+                JmsUtils.closeConnection(connection); // e.g. unknown queue or denied consume: don't leak the connection
+                worker.dispose();
+                sink.error(e);
+                return;
+            }
+            Connection subscription = connection;
+
+            // The worker runs drains one at a time, keeping the session single-threaded
+            Runnable drain = () -> {
+                try {
+                    while (sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+                        Message message = consumer.receive(receiveTimeout);
+                        if (message != null) {
+                            sink.next(message);
+                        }
+                    }
+                } catch (JMSException e) {
+                    if (!sink.isCancelled()) {
+                        sink.error(e);
+                    }
+                }
+            };
+            sink.onRequest(n -> worker.schedule(drain));
+            sink.onDispose(() -> {
+                try {
+                    subscription.close(); // unblocks a pending receive()
+                } catch (JMSException e) {
+                    logger.debug("Failed to close reactive consumer connection: {}", e.getMessage());
+                }
+                worker.dispose();
+            });
+        });
+    }
+}
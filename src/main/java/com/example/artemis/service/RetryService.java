@@ -0,0 +1,292 @@
+package com.example.artemis.service;
+
+import com.example.artemis.tracing.LatencyRecorder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.jms.BytesMessage;
+import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.MapMessage;
+import jakarta.jms.Message;
+import jakarta.jms.MessageEOFException;
+import jakarta.jms.MessageFormatException;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.ObjectMessage;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+import jakarta.jms.StreamMessage;
+import jakarta.jms.TextMessage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jms.core.MessageCreator;
+import org.springframework.jms.support.JmsUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side retry and dead-letter handling for listener failures.
+ * <p>
+ * Instead of rethrowing and letting the broker redeliver immediately, a failed
+ * message is re-published to its original queue with a scheduled delivery time
+ * ({@code _AMQ_SCHED_DELIVERY}) computed from an exponential backoff. Once the
+ * retry budget is exhausted, or the failure is classified as non-retryable, the
+ * message is routed to a per-queue DLQ carrying the failure metadata. Requests that
+ * expect a reply go straight to the DLQ: the requester stops waiting long before the
+ * first backoff expires, so a retried request would only leave an unread reply behind.
+ * Grouped messages ({@code JMSXGroupID}) are left to broker redelivery: a scheduled copy
+ * would be queued behind later messages of its group and break the group's order.
+ * <p>
+ * Copies keep the message type, body, JMSType, priority and delivery mode of the original.
+ * <p>
+ * Re-publish and acknowledgement of the original are not atomic, so a crash in
+ * between can produce a duplicate (at-least-once).
+ */
+@Service
+public class RetryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryService.class);
+
+    public static final String RETRY_COUNT_PROPERTY = "retryCount";
+    public static final String ORIGINAL_QUEUE_PROPERTY = "originalQueue";
+    public static final String FAILURE_REASON_PROPERTY = "failureReason";
+    public static final String FAILURE_EXCEPTION_PROPERTY = "failureException";
+    public static final String FAILED_AT_PROPERTY = "failedAt";
+
+    private static final String SCHEDULED_DELIVERY_PROPERTY =
+            org.apache.activemq.artemis.api.core.Message.HDR_SCHEDULED_DELIVERY_TIME.toString();
+
+    @Value("${app.retry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.retry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.retry.initial-delay:1000}")
+    private long initialDelay;
+
+    @Value("${app.retry.multiplier:2.0}")
+    private double multiplier;
+
+    @Value("${app.retry.max-delay:60000}")
+    private long maxDelay;
+
+    @Value("${app.retry.dlq-suffix:.DLQ}")
+    private String dlqSuffix;
+
+    @Value("${app.retry.non-retryable-exceptions:}")
+    private String[] nonRetryableExceptionNames;
+
+    private final TrafficLanes trafficLanes;
+    private final MeterRegistry meterRegistry;
+    private final List<Class<?>> nonRetryableExceptions = new ArrayList<>();
+
+    public RetryService(TrafficLanes trafficLanes, MeterRegistry meterRegistry) {
+        this.trafficLanes = trafficLanes;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        // Malformed payloads will never succeed, so they skip straight to the DLQ
+        Collections.addAll(nonRetryableExceptions,
+                MessageFormatException.class, ClassCastException.class);
+        for (String name : nonRetryableExceptionNames) {
+            if (!name.isBlank()) {
+                nonRetryableExceptions.add(ClassUtils.resolveClassName(name.trim(), getClass().getClassLoader()));
+            }
+        }
+        logger.info("Client-side retry enabled={} maxAttempts={} initialDelay={}ms multiplier={} maxDelay={}ms dlqSuffix={}",
+                enabled, maxAttempts, initialDelay, multiplier, maxDelay, dlqSuffix);
+    }
+
+    /**
+     * Schedules a retry or routes the message to its DLQ.
+     *
+     * @return {@code true} if the failure was handled and the original message
+     *         can be acknowledged, {@code false} if client-side retry is disabled
+     *         or the message is grouped, and the caller should fall back to broker
+     *         redelivery (rethrow without acknowledging)
+     * @throws JMSException if the message could not be re-published
+     */
+    public boolean handleFailure(Message message, Exception cause) throws JMSException {
+        if (!enabled) {
+            return false;
+        }
+
+        String queueName = queueName(message.getJMSDestination());
+        int retryCount = message.propertyExists(RETRY_COUNT_PROPERTY)
+                ? message.getIntProperty(RETRY_COUNT_PROPERTY) : 0;
+
+        if (!isRetryable(cause)) {
+            sendToDlq(message, queueName, retryCount, "non-retryable", cause);
+        } else if (message.getJMSReplyTo() != null) {
+            sendToDlq(message, queueName, retryCount, "reply-expected", cause);
+        } else if (message.propertyExists("JMSXGroupID")) {
+            logger.warn("Leaving grouped message {} on queue {} to broker redelivery to keep group {} in order",
+                    message.getJMSMessageID(), queueName, message.getStringProperty("JMSXGroupID"));
+            return false;
+        } else if (retryCount >= maxAttempts) {
+            sendToDlq(message, queueName, retryCount, "retries-exhausted", cause);
+        } else {
+            scheduleRetry(message, queueName, retryCount + 1);
+        }
+        return true;
+    }
+
+    boolean isRetryable(Throwable cause) {
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            for (Class<?> type : nonRetryableExceptions) {
+                if (type.isInstance(t)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    long backoffDelay(int attempt) {
+        double delay = initialDelay * Math.pow(multiplier, attempt - 1);
+        return (long) Math.min(delay, maxDelay);
+    }
+
+    private void scheduleRetry(Message original, String queueName, int attempt) throws JMSException {
+        long delay = backoffDelay(attempt);
+        long deliverAt = System.currentTimeMillis() + delay;
+
+        send(queueName, original, session -> {
+            Message copy = copyOf(session, original);
+            copy.setIntProperty(RETRY_COUNT_PROPERTY, attempt);
+            copy.setLongProperty(SCHEDULED_DELIVERY_PROPERTY, deliverAt);
+            restampSentAt(original, copy, deliverAt);
+            return copy;
+        });
+
+        counter("artemis.retry.scheduled", queueName).increment();
+        logger.warn("Scheduled retry {}/{} for message {} on queue {} in {} ms",
+                attempt, maxAttempts, original.getJMSMessageID(), queueName, delay);
+    }
+
+    private void sendToDlq(Message original, String queueName, int retryCount, String reason, Exception cause)
+            throws JMSException {
+        String dlqName = queueName + dlqSuffix;
+
+        send(dlqName, original, session -> {
+            Message copy = copyOf(session, original);
+            copy.setIntProperty(RETRY_COUNT_PROPERTY, retryCount);
+            copy.setStringProperty(ORIGINAL_QUEUE_PROPERTY, queueName);
+            copy.setStringProperty(FAILURE_REASON_PROPERTY, reason);
+            copy.setStringProperty(FAILURE_EXCEPTION_PROPERTY,
+                    cause.getClass().getName() + ": " + cause.getMessage());
+            copy.setStringProperty(FAILED_AT_PROPERTY, Instant.now().toString());
+            return copy;
+        });
+
+        counter("artemis.dlq.routed", queueName).increment();
+        logger.error("Message {} routed to {} after {} retries ({})",
+                original.getJMSMessageID(), dlqName, retryCount, reason, cause);
+    }
+
+    // Sends on the destination's lane, with the original's priority and delivery mode rather than the template's defaults
+    private void send(String queueName, Message original, MessageCreator creator) throws JMSException {
+        trafficLanes.templateFor(queueName).execute(session -> {
+            MessageProducer producer = session.createProducer(session.createQueue(queueName));
+            try {
+                producer.send(creator.createMessage(session), original.getJMSDeliveryMode(),
+                        original.getJMSPriority(), Message.DEFAULT_TIME_TO_LIVE);
+            } finally {
+                JmsUtils.closeMessageProducer(producer);
+            }
+            return null;
+        }, false);
+    }
+
+    // Dwell of a retry starts at its scheduled delivery, not at the first send; the first send time is kept
+    private static void restampSentAt(Message original, Message copy, long deliverAt) throws JMSException {
+        if (original.propertyExists(LatencyRecorder.SENT_AT_PROPERTY)
+                && !original.propertyExists(LatencyRecorder.ORIGINAL_SENT_AT_PROPERTY)) {
+            copy.setLongProperty(LatencyRecorder.ORIGINAL_SENT_AT_PROPERTY,
+                    original.getLongProperty(LatencyRecorder.SENT_AT_PROPERTY));
+        }
+        copy.setLongProperty(LatencyRecorder.SENT_AT_PROPERTY, TimeUnit.MILLISECONDS.toMicros(deliverAt));
+    }
+
+    private static Message copyOf(Session session, Message original) throws JMSException {
+        Message copy = copyBody(session, original);
+        copy.setJMSType(original.getJMSType());
+        copy.setJMSCorrelationID(original.getJMSCorrelationID());
+        copy.setJMSReplyTo(original.getJMSReplyTo());
+        if (original.propertyExists("JMSXGroupID")) {
+            copy.setStringProperty("JMSXGroupID", original.getStringProperty("JMSXGroupID"));
+        }
+
+        var names = original.getPropertyNames();
+        while (names.hasMoreElements()) {
+            String name = (String) names.nextElement();
+            // Skip JMS-defined and broker-internal properties
+            if (!name.startsWith("JMSX") && !name.startsWith("_AMQ_")) {
+                copy.setObjectProperty(name, original.getObjectProperty(name));
+            }
+        }
+        return copy;
+    }
+
+    // New message of the original's type with the same body; the listener may have read it already
+    private static Message copyBody(Session session, Message original) throws JMSException {
+        if (original instanceof TextMessage text) {
+            return session.createTextMessage(text.getText());
+        }
+        if (original instanceof BytesMessage bytes) {
+            bytes.reset();
+            byte[] body = new byte[(int) bytes.getBodyLength()];
+            bytes.readBytes(body);
+            BytesMessage copy = session.createBytesMessage();
+            copy.writeBytes(body);
+            return copy;
+        }
+        if (original instanceof MapMessage map) {
+            MapMessage copy = session.createMapMessage();
+            for (Enumeration<?> names = map.getMapNames(); names.hasMoreElements(); ) {
+                String name = (String) names.nextElement();
+                copy.setObject(name, map.getObject(name));
+            }
+            return copy;
+        }
+        if (original instanceof ObjectMessage object) {
+            return session.createObjectMessage(object.getObject());
+        }
+        if (original instanceof StreamMessage stream) {
+            stream.reset();
+            StreamMessage copy = session.createStreamMessage();
+            try {
+                while (true) {
+                    copy.writeObject(stream.readObject());
+                }
+            } catch (MessageEOFException endOfStream) {
+                return copy;
+            }
+        }
+        return session.createMessage();
+    }
+
+    private static String queueName(Destination destination) throws JMSException {
+        if (destination instanceof Queue queue) {
+            return queue.getQueueName();
+        }
+        throw new JMSException("Client-side retry requires a queue destination, got: " + destination);
+    }
+
+    private Counter counter(String name, String queueName) {
+        return Counter.builder(name).tag("queue", queueName).register(meterRegistry);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.artemis.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Routes sends to a traffic lane by destination. The sync queue uses the sync lane,
+ * destinations listed in {@code app.lanes.interactive.destinations} the interactive lane, and
+ * everything else, including the transaction queue, the bulk lane. Each lane has its own
+ * connection and session budget, and stamps its own JMS priority, so bulk traffic cannot hold
+ * up latency-critical request/reply.
+ */
+@Component
+public class TrafficLanes {
+
+    public enum Lane { INTERACTIVE, SYNC, BULK }
+
+    private final JmsTemplate interactiveJmsTemplate;
+    private final JmsTemplate syncJmsTemplate;
+    private final JmsTemplate bulkJmsTemplate;
+    private final Set<String> interactiveDestinations;
+    private final String syncQueueName;
+
+    public TrafficLanes(
+            @Qualifier("interactiveJmsTemplate") JmsTemplate interactiveJmsTemplate,
+            @Qualifier("syncJmsTemplate") JmsTemplate syncJmsTemplate,
+            @Qualifier("defaultJmsTemplate") JmsTemplate bulkJmsTemplate,
+            @Value("${app.lanes.interactive.destinations}") String[] interactiveDestinations,
+            @Value("${app.queue.sync}") String syncQueueName,
+            @Value("${app.queue.transaction}") String transactionQueueName) {
+        this.interactiveJmsTemplate = interactiveJmsTemplate;
+        this.syncJmsTemplate = syncJmsTemplate;
+        this.bulkJmsTemplate = bulkJmsTemplate;
+        this.interactiveDestinations = Arrays.stream(interactiveDestinations)
+                .map(String::trim)
+                .filter(destination -> !destination.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.syncQueueName = syncQueueName;
+        // Sync and transactional sends are pinned to their own templates, listing them would be silently ignored
+        for (String pinned : new String[] { syncQueueName, transactionQueueName }) {
+            if (this.interactiveDestinations.contains(pinned)) {
+                throw new IllegalArgumentException("app.lanes.interactive.destinations cannot contain " + pinned
+                        + ", sync and transactional sends always use their own lane");
+            }
+        }
+    }
+
+    public Lane laneFor(String destination) {
+        if (destination.equals(syncQueueName)) {
+            return Lane.SYNC;
+        }
+        return interactiveDestinations.contains(destination) ? Lane.INTERACTIVE : Lane.BULK;
+    }
+
+    public JmsTemplate templateFor(String destination) {
+        return switch (laneFor(destination)) {
+            case INTERACTIVE -> interactiveJmsTemplate;
+            case SYNC -> syncJmsTemplate;
+            case BULK -> bulkJmsTemplate;
+        };
+    }
+}
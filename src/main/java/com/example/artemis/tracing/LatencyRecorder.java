@@ -0,0 +1,122 @@
+package com.example.artemis.tracing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stamps outgoing messages with a microsecond send timestamp and records where time goes
+ * between producer, broker and consumer as Micrometer timers (percentile histograms).
+ * <p>
+ * Dwell times compare wall clocks of different hosts, so they are only as accurate as the
+ * clock synchronisation between producer and consumer. Negative values are clamped to zero.
+ */
+@Component
+public class LatencyRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(LatencyRecorder.class);
+
+    /** Epoch microseconds when the producer handed the message to the client. */
+    public static final String SENT_AT_PROPERTY = "sentAtMicros";
+    /** Epoch microseconds of the first send, kept on retried copies whose send timestamp is re-stamped. */
+    public static final String ORIGINAL_SENT_AT_PROPERTY = "originalSentAtMicros";
+    /** Epoch microseconds when the replier received the request. */
+    public static final String REQUEST_RECEIVED_AT_PROPERTY = "requestReceivedAtMicros";
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean firstMessageConsumed = new AtomicBoolean();
+
+    public LatencyRecorder(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public static long nowMicros() {
+        Instant now = Instant.now();
+        return TimeUnit.SECONDS.toMicros(now.getEpochSecond()) + TimeUnit.NANOSECONDS.toMicros(now.getNano());
+    }
+
+    public Message stamp(Message message) throws JMSException {
+        message.setLongProperty(SENT_AT_PROPERTY, nowMicros());
+        return message;
+    }
+
+    /** Records queue dwell (send to receive) and processing time for a consumed message. */
+    public void recordConsumed(Message message, String queueName, long receivedAtMicros) {
+        long processedAtMicros = nowMicros();
+        if (!firstMessageConsumed.get() && firstMessageConsumed.compareAndSet(false, true)) {
+            recordFirstMessage(queueName);
+        }
+        try {
+            if (message.propertyExists(SENT_AT_PROPERTY)) {
+                record("artemis.message.dwell", queueName, message.getLongProperty(SENT_AT_PROPERTY), receivedAtMicros);
+            }
+        } catch (JMSException e) {
+            logger.debug("Unable to read send timestamp: {}", e.getMessage());
+        }
+        record("artemis.message.processing", queueName, receivedAtMicros, processedAtMicros);
+    }
+
+    // Time from process start to the first consumed message, the startup cost a restarted consumer pays
+    private void recordFirstMessage(String queueName) {
+        ProcessHandle.current().info().startInstant().ifPresent(start -> {
+            long millis = Duration.between(start, Instant.now()).toMillis();
+            TimeGauge.builder("application.first.message.time", () -> millis, TimeUnit.MILLISECONDS)
+                    .description("Time from process start until the first message was consumed")
+                    .register(meterRegistry);
+            logger.info("Time to first message: {} ms since process start (queue {})", millis, queueName);
+        });
+    }
+
+    /**
+     * Breaks a request/reply round trip into segments: request dwell, replier processing,
+     * reply dwell and total, measured from the request's send timestamp. The {@code client}
+     * tag tells the blocking and reactive requesters apart.
+     */
+    public void recordRoundTrip(String queueName, String client, long requestSentAtMicros, Message reply) {
+        long receivedAtMicros = nowMicros();
+        try {
+            if (reply.propertyExists(REQUEST_RECEIVED_AT_PROPERTY) && reply.propertyExists(SENT_AT_PROPERTY)) {
+                long requestReceivedAt = reply.getLongProperty(REQUEST_RECEIVED_AT_PROPERTY);
+                long replySentAt = reply.getLongProperty(SENT_AT_PROPERTY);
+                recordSegment(queueName, client, "request-dwell", requestSentAtMicros, requestReceivedAt);
+                recordSegment(queueName, client, "processing", requestReceivedAt, replySentAt);
+                recordSegment(queueName, client, "reply-dwell", replySentAt, receivedAtMicros);
+            }
+        } catch (JMSException e) {
+            logger.debug("Unable to read reply timestamps: {}", e.getMessage());
+        }
+        recordSegment(queueName, client, "total", requestSentAtMicros, receivedAtMicros);
+    }
+
+    private void recordSegment(String queueName, String client, String segment, long fromMicros, long toMicros) {
+        timer("artemis.request.roundtrip", queueName)
+                .tag("client", client)
+                .tag("segment", segment)
+                .register(meterRegistry)
+                .record(Math.max(0, toMicros - fromMicros), TimeUnit.MICROSECONDS);
+    }
+
+    private void record(String name, String queueName, long fromMicros, long toMicros) {
+        timer(name, queueName)
+                .register(meterRegistry)
+                .record(Math.max(0, toMicros - fromMicros), TimeUnit.MICROSECONDS);
+    }
+
+    private static Timer.Builder timer(String name, String queueName) {
+        return Timer.builder(name)
+                .tag("queue", queueName)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.99, 0.999);
+    }
+}
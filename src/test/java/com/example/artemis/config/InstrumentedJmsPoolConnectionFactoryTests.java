@@ -0,0 +1,115 @@
+package com.example.artemis.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.jms.Connection;
+import jakarta.jms.Session;
+
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Borrows sessions from {@link InstrumentedJmsPoolConnectionFactory} over an in-VM broker.
+ */
+class InstrumentedJmsPoolConnectionFactoryTests {
+
+    private static EmbeddedActiveMQ broker;
+
+    private static ActiveMQConnectionFactory connectionFactory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private InstrumentedJmsPoolConnectionFactory pool;
+
+    @BeforeAll
+    static void startBroker() throws Exception {
+        broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration("in-vm", "vm://2"));
+        broker.start();
+        connectionFactory = new ActiveMQConnectionFactory("vm://2");
+    }
+
+    @AfterAll
+    static void stopBroker() throws Exception {
+        connectionFactory.close();
+        broker.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        pool = new InstrumentedJmsPoolConnectionFactory("test", meterRegistry, false);
+        pool.setConnectionFactory(connectionFactory);
+        pool.setMaxConnections(1);
+        pool.setMaxSessionsPerConnection(1);
+        pool.setBlockIfSessionPoolIsFull(true);
+        pool.setBlockIfSessionPoolIsFullTimeout(5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.stop();
+    }
+
+    @Test
+    void uncontendedBorrowIsNotAWaiter() throws Exception {
+        Connection connection = pool.createConnection();
+        Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+
+        assertThat(pool.getWaiters()).isZero();
+        assertThat(pool.getPendingBorrows()).isZero();
+        assertThat(pool.getLoans()).hasSize(1);
+        assertThat(meterRegistry.get("artemis.pool.session.borrow").timer().count()).isEqualTo(1);
+
+        session.close();
+        connection.close();
+        assertThat(pool.getLoans()).isEmpty();
+    }
+
+    @Test
+    void borrowFromFullPoolIsCountedAsWaiterUntilSessionIsReturned() throws Exception {
+        Connection connection = pool.createConnection();
+        Session held = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+
+        CompletableFuture<Session> blocked = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.createConnection().createSession(false, Session.AUTO_ACKNOWLEDGE);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        awaitUntil(() -> pool.getWaiters() == 1);
+        assertThat(meterRegistry.get("artemis.pool.session.waiters").gauge().value()).isEqualTo(1);
+        assertThat(blocked).isNotDone();
+
+        held.close();
+        Session session = blocked.get(5, TimeUnit.SECONDS);
+        assertThat(pool.getWaiters()).isZero();
+        assertThat(pool.getPendingBorrows()).isZero();
+
+        session.close();
+        connection.close();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 10 s").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.artemis.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import com.example.artemis.service.RetryService;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.TextMessage;
+
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jms.core.JmsTemplate;
+
+/**
+ * Runs {@link BatchMessageListenerContainer} against an in-VM broker, as the "embedded" profile does.
+ */
+class BatchMessageListenerContainerTests {
+
+    private static EmbeddedActiveMQ broker;
+
+    private static ActiveMQConnectionFactory connectionFactory;
+
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+    private final List<BatchMessageListenerContainer> containers = new ArrayList<>();
+
+    private JmsTemplate jmsTemplate;
+
+    private String queue;
+
+    @BeforeAll
+    static void startBroker() throws Exception {
+        broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration("in-vm", "vm://0"));
+        broker.start();
+        connectionFactory = new ActiveMQConnectionFactory("vm://0");
+    }
+
+    @AfterAll
+    static void stopBroker() throws Exception {
+        connectionFactory.close();
+        broker.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        queue = "batch-" + UUID.randomUUID();
+        jmsTemplate = new JmsTemplate(connectionFactory);
+        jmsTemplate.setReceiveTimeout(500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        containers.forEach(BatchMessageListenerContainer::shutdown);
+    }
+
+    @Test
+    void flushesBatchWhenSizeIsReached() throws Exception {
+        send("m1", "m2", "m3", "m4", "m5", "m6");
+
+        long start = System.nanoTime();
+        start(3, 10_000, recording(), null, null);
+
+        awaitUntil(() -> batches.size() == 2);
+        assertThat(batches).containsExactly(List.of("m1", "m2", "m3"), List.of("m4", "m5", "m6"));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(10_000);
+    }
+
+    @Test
+    void flushesPartialBatchWhenTimeoutExpires() throws Exception {
+        send("m1", "m2");
+
+        start(100, 200, recording(), null, null);
+
+        awaitUntil(() -> !batches.isEmpty());
+        Thread.sleep(300);
+        assertThat(batches).containsExactly(List.of("m1", "m2"));
+    }
+
+    @Test
+    void commitsBatchOnSuccess() throws Exception {
+        send("m1", "m2", "m3");
+
+        BatchMessageListenerContainer container = start(10, 200, recording(), null, null);
+
+        awaitUntil(() -> !batches.isEmpty());
+        container.stop();
+        assertThat(batches).containsExactly(List.of("m1", "m2", "m3"));
+        assertThat(jmsTemplate.receive(queue)).isNull();
+    }
+
+    @Test
+    void fallsBackToPerMessageProcessingAndHandsFailuresToRetry() throws Exception {
+        RetryService retryService = mock(RetryService.class);
+        when(retryService.handleFailure(any(), any())).thenReturn(true);
+        send("m1", "bad", "m3");
+
+        BatchMessageListenerContainer container = start(10, 200, messages -> {
+            batches.add(texts(messages));
+            if (texts(messages).contains("bad")) {
+                throw new IllegalArgumentException("bad payload");
+            }
+        }, retryService, null);
+
+        awaitUntil(() -> batches.size() == 4);
+        container.stop();
+        assertThat(batches).containsExactly(
+                List.of("m1", "bad", "m3"), List.of("m1"), List.of("bad"), List.of("m3"));
+        verify(retryService, times(1)).handleFailure(
+                argThat(message -> "bad".equals(text(message))), isA(IllegalArgumentException.class));
+        assertThat(jmsTemplate.receive(queue)).isNull();
+    }
+
+    @Test
+    void rollsBackBatchWhenRetryIsDisabled() throws Exception {
+        send("m1", "bad", "m3");
+
+        BatchMessageListenerContainer container = start(10, 200, messages -> {
+            batches.add(texts(messages));
+            if (texts(messages).contains("bad") && !messages.get(0).getJMSRedelivered()) {
+                throw new IllegalStateException("fails on first delivery");
+            }
+        }, null, null);
+
+        // Batch fails, m1 succeeds alone, bad fails alone: everything is rolled back and redelivered as one batch
+        awaitUntil(() -> batches.size() == 4);
+        container.stop();
+        assertThat(batches).containsExactly(
+                List.of("m1", "bad", "m3"), List.of("m1"), List.of("bad"), List.of("m1", "bad", "m3"));
+        assertThat(jmsTemplate.receive(queue)).isNull();
+    }
+
+    @Test
+    void sendsFromListenerJoinBatchTransaction() throws Exception {
+        String outQueue = queue + ".out";
+        send("m1", "m2");
+
+        BatchMessageListenerContainer container = start(10, 200, messages -> {
+            batches.add(texts(messages));
+            for (Message message : messages) {
+                jmsTemplate.convertAndSend(outQueue, text(message));
+            }
+            if (!messages.get(0).getJMSRedelivered()) {
+                throw new IllegalStateException("fails on first delivery");
+            }
+        }, null, null);
+
+        // First delivery: the batch and the m1 attempt send, then roll back; the redelivered batch commits
+        awaitUntil(() -> batches.size() == 3);
+        container.stop();
+        assertThat(batches).containsExactly(List.of("m1", "m2"), List.of("m1"), List.of("m1", "m2"));
+        assertThat(jmsTemplate.receive(outQueue)).isNotNull();
+        assertThat(jmsTemplate.receive(outQueue)).isNotNull();
+        assertThat(jmsTemplate.receive(outQueue)).isNull();
+    }
+
+    @Test
+    void observesEachMessageOfBatch() throws Exception {
+        AtomicInteger stopped = new AtomicInteger();
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler<>() {
+
+            @Override
+            public void onStop(Observation.Context context) {
+                stopped.incrementAndGet();
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+        });
+        send("m1", "m2", "m3");
+
+        start(10, 200, recording(), null, registry);
+
+        awaitUntil(() -> stopped.get() == 3);
+        assertThat(batches).containsExactly(List.of("m1", "m2", "m3"));
+    }
+
+    private BatchMessageListenerContainer start(int batchSize, long batchTimeout, BatchMessageListener listener,
+            RetryService retryService, ObservationRegistry observationRegistry) {
+        BatchMessageListenerContainer container = new BatchMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setDestinationName(queue);
+        container.setSessionTransacted(true);
+        container.setReceiveTimeout(100);
+        container.setBatchSize(batchSize);
+        container.setBatchTimeout(batchTimeout);
+        container.setBatchMessageListener(listener);
+        container.setRetryService(retryService);
+        container.setObservationRegistry(observationRegistry);
+        container.afterPropertiesSet();
+        container.start();
+        containers.add(container);
+        return container;
+    }
+
+    private BatchMessageListener recording() {
+        return messages -> batches.add(texts(messages));
+    }
+
+    private void send(String... texts) {
+        for (String text : texts) {
+            jmsTemplate.convertAndSend(queue, text);
+        }
+    }
+
+    private static List<String> texts(List<Message> messages) {
+        return messages.stream().map(BatchMessageListenerContainerTests::text).toList();
+    }
+
+    private static String text(Message message) {
+        try {
+            return ((TextMessage) message).getText();
+        } catch (JMSException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 10 s").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.artemis.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.example.artemis.monitoring.QueueStatsPoller.QueueStats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Polls an in-VM broker's management address through {@link QueueStatsPoller}.
+ */
+class QueueStatsPollerTests {
+
+    private static EmbeddedActiveMQ broker;
+
+    private static ActiveMQConnectionFactory connectionFactory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<QueueStatsPoller> pollers = new ArrayList<>();
+
+    private JmsTemplate jmsTemplate;
+
+    private String queue;
+
+    @BeforeAll
+    static void startBroker() throws Exception {
+        broker = startBroker("vm://3");
+        connectionFactory = new ActiveMQConnectionFactory("vm://3");
+    }
+
+    @AfterAll
+    static void stopBroker() throws Exception {
+        connectionFactory.close();
+        broker.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        queue = "stats-" + UUID.randomUUID();
+        jmsTemplate = new JmsTemplate(connectionFactory);
+        jmsTemplate.setReceiveTimeout(2000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pollers.forEach(QueueStatsPoller::stop);
+    }
+
+    @Test
+    void splitsBrokerListIntoOneUrlPerNode() {
+        assertThat(QueueStatsPoller.nodeUrls("(tcp://a:61617, tcp://b:61717)?sslEnabled=true&randomize=true"))
+                .containsExactly("tcp://a:61617?sslEnabled=true&randomize=true",
+                        "tcp://b:61717?sslEnabled=true&randomize=true");
+    }
+
+    @Test
+    void keepsSingleBrokerUrl() {
+        assertThat(QueueStatsPoller.nodeUrls("vm://0")).containsExactly("vm://0");
+        assertThat(QueueStatsPoller.nodeUrls("tcp://a:61617?sslEnabled=true"))
+                .containsExactly("tcp://a:61617?sslEnabled=true");
+    }
+
+    @Test
+    void reportsBacklogOfEachQueue() {
+        send(3);
+        QueueStatsPoller poller = start("vm://3", queue);
+
+        poller.poll();
+
+        QueueStats stats = stats(poller, "vm://3", queue);
+        assertThat(stats.error()).isNull();
+        assertThat(stats.messageCount()).isEqualTo(3);
+        assertThat(stats.messagesAdded()).isEqualTo(3);
+        assertThat(stats.consumerCount()).isZero();
+        assertThat(stats.oldestMessageAgeMillis()).isNotNull();
+        assertThat(stats.enqueueRate()).isNull();
+        assertThat(gauge("artemis.queue.messages", "vm://3", queue)).isEqualTo(3);
+        assertThat(gauge("artemis.queue.enqueue.rate", "vm://3", queue)).isNaN();
+    }
+
+    @Test
+    void derivesRatesFromCountersBetweenPolls() {
+        send(1);
+        QueueStatsPoller poller = start("vm://3", queue);
+        poller.poll();
+        QueueStats first = stats(poller, "vm://3", queue);
+
+        send(4);
+        jmsTemplate.receive(queue);
+        jmsTemplate.receive(queue);
+        poller.poll();
+
+        QueueStats second = stats(poller, "vm://3", queue);
+        double seconds = (second.sampledAt().toEpochMilli() - first.sampledAt().toEpochMilli()) / 1000.0;
+        assertThat(second.messageCount()).isEqualTo(3);
+        assertThat(second.enqueueRate()).isEqualTo(4 / seconds);
+        assertThat(second.dequeueRate()).isEqualTo(2 / seconds);
+        assertThat(gauge("artemis.queue.dequeue.rate", "vm://3", queue)).isEqualTo(2 / seconds);
+    }
+
+    @Test
+    void reportsNoRateWhenCountersRestart() throws Exception {
+        send(3);
+        jmsTemplate.receive(queue);
+        QueueStatsPoller poller = start("vm://3", queue);
+        poller.poll();
+
+        // Recreating the queue restarts its counters, as a broker restart does
+        broker.getActiveMQServer().destroyQueue(SimpleString.toSimpleString(queue), null, false, true);
+        send(1);
+        poller.poll();
+
+        QueueStats stats = stats(poller, "vm://3", queue);
+        assertThat(stats.error()).isNull();
+        assertThat(stats.messagesAdded()).isEqualTo(1);
+        assertThat(stats.enqueueRate()).isNull();
+        assertThat(stats.dequeueRate()).isNull();
+    }
+
+    @Test
+    void reportsUnknownQueueAsError() {
+        QueueStatsPoller poller = start("vm://3", "missing-" + queue);
+
+        poller.poll();
+
+        QueueStats stats = stats(poller, "vm://3", "missing-" + queue);
+        assertThat(stats.error()).isNotNull();
+        assertThat(gauge("artemis.queue.messages", "vm://3", "missing-" + queue)).isNaN();
+    }
+
+    @Test
+    void pollsEveryNodeOfBrokerList() throws Exception {
+        EmbeddedActiveMQ second = startBroker("vm://4");
+        try {
+            send(2);
+            QueueStatsPoller poller = start("(vm://3,vm://4)", queue);
+
+            poller.poll();
+
+            assertThat(poller.getStats()).containsOnlyKeys("vm://3", "vm://4");
+            assertThat(stats(poller, "vm://3", queue).messageCount()).isEqualTo(2);
+            assertThat(stats(poller, "vm://4", queue).error()).isNotNull(); // the queue only exists on vm://3
+        } finally {
+            second.stop();
+        }
+    }
+
+    @Test
+    void replacesSamplesOfUnreachableNodeWithErrors() throws Exception {
+        EmbeddedActiveMQ node = startBroker("vm://5");
+        ActiveMQConnectionFactory nodeConnectionFactory = new ActiveMQConnectionFactory("vm://5");
+        try {
+            new JmsTemplate(nodeConnectionFactory).convertAndSend(queue, "payload");
+            QueueStatsPoller poller = start("vm://5", queue);
+            poller.poll();
+            assertThat(stats(poller, "vm://5", queue).messageCount()).isEqualTo(1);
+
+            node.stop();
+            poller.poll();
+
+            QueueStats stats = stats(poller, "vm://5", queue);
+            assertThat(stats.error()).isNotNull();
+            assertThat(stats.messageCount()).isZero();
+            assertThat(gauge("artemis.queue.messages", "vm://5", queue)).isNaN();
+        } finally {
+            nodeConnectionFactory.close();
+            node.stop();
+        }
+    }
+
+    private QueueStatsPoller start(String brokerUrl, String... queues) {
+        QueueStatsPoller poller = new QueueStatsPoller(meterRegistry);
+        ReflectionTestUtils.setField(poller, "enabled", true);
+        ReflectionTestUtils.setField(poller, "intervalMillis", 3_600_000L); // polled by the test only
+        ReflectionTestUtils.setField(poller, "timeoutMillis", 2000L);
+        ReflectionTestUtils.setField(poller, "managementAddress", "activemq.management");
+        ReflectionTestUtils.setField(poller, "queues", queues);
+        ReflectionTestUtils.setField(poller, "brokerUrl", brokerUrl);
+        poller.start();
+        pollers.add(poller);
+        return poller;
+    }
+
+    private void send(int count) {
+        for (int i = 0; i < count; i++) {
+            jmsTemplate.convertAndSend(queue, "message-" + i);
+        }
+    }
+
+    private static QueueStats stats(QueueStatsPoller poller, String node, String queue) {
+        QueueStats stats = poller.getStats().get(node).get(queue);
+        assertThat(stats).as("sample of %s on %s", queue, node).isNotNull();
+        return stats;
+    }
+
+    private double gauge(String name, String node, String queue) {
+        return meterRegistry.get(name).tag("node", node).tag("queue", queue).gauge().value();
+    }
+
+    private static EmbeddedActiveMQ startBroker(String acceptor) throws Exception {
+        EmbeddedActiveMQ broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration("in-vm", acceptor));
+        broker.start();
+        return broker;
+    }
+}
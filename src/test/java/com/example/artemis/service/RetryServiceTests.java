@@ -0,0 +1,307 @@
+package com.example.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.example.artemis.tracing.LatencyRecorder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.jms.BytesMessage;
+import jakarta.jms.DeliveryMode;
+import jakarta.jms.JMSException;
+import jakarta.jms.MapMessage;
+import jakarta.jms.Message;
+import jakarta.jms.MessageFormatException;
+import jakarta.jms.ObjectMessage;
+import jakarta.jms.Queue;
+import jakarta.jms.StreamMessage;
+import jakarta.jms.TextMessage;
+
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.core.MessageCreator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Runs {@link RetryService} against an in-VM broker and reads back the retry and DLQ copies it publishes.
+ */
+class RetryServiceTests {
+
+    private static EmbeddedActiveMQ broker;
+
+    private static ActiveMQConnectionFactory connectionFactory;
+
+    private JmsTemplate jmsTemplate;
+
+    private RetryService retryService;
+
+    private String queue;
+
+    @BeforeAll
+    static void startBroker() throws Exception {
+        broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration("in-vm", "vm://1"));
+        broker.start();
+        connectionFactory = new ActiveMQConnectionFactory("vm://1");
+    }
+
+    @AfterAll
+    static void stopBroker() throws Exception {
+        connectionFactory.close();
+        broker.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        queue = "retry-" + UUID.randomUUID();
+        jmsTemplate = new JmsTemplate(connectionFactory);
+        jmsTemplate.setReceiveTimeout(2000);
+
+        retryService = new RetryService(
+                new TrafficLanes(jmsTemplate, jmsTemplate, jmsTemplate, new String[0], "syncQueue", "transactionQueue"), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(retryService, "enabled", true);
+        ReflectionTestUtils.setField(retryService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(retryService, "initialDelay", 100L);
+        ReflectionTestUtils.setField(retryService, "multiplier", 2.0);
+        ReflectionTestUtils.setField(retryService, "maxDelay", 300L);
+        ReflectionTestUtils.setField(retryService, "dlqSuffix", ".DLQ");
+        ReflectionTestUtils.setField(retryService, "nonRetryableExceptionNames",
+                new String[] {"java.lang.IllegalArgumentException"});
+        retryService.init();
+    }
+
+    @Test
+    void backoffGrowsExponentiallyUpToMaxDelay() {
+        assertThat(retryService.backoffDelay(1)).isEqualTo(100);
+        assertThat(retryService.backoffDelay(2)).isEqualTo(200);
+        assertThat(retryService.backoffDelay(3)).isEqualTo(300);
+        assertThat(retryService.backoffDelay(20)).isEqualTo(300);
+    }
+
+    @Test
+    void classifiesByWholeCauseChain() {
+        assertThat(retryService.isRetryable(new IllegalStateException("transient"))).isTrue();
+        assertThat(retryService.isRetryable(new IllegalArgumentException("bad"))).isFalse();
+        assertThat(retryService.isRetryable(new RuntimeException(new IllegalArgumentException("bad")))).isFalse();
+        assertThat(retryService.isRetryable(new RuntimeException(new MessageFormatException("bad")))).isFalse();
+        assertThat(retryService.isRetryable(new RuntimeException(new ClassCastException()))).isFalse();
+    }
+
+    @Test
+    void republishesRetryCopyWithBackoffAndRestampedSendTime() throws Exception {
+        jmsTemplate.send(queue, session -> {
+            TextMessage message = session.createTextMessage("payload");
+            message.setJMSType("order");
+            message.setJMSCorrelationID("corr-1");
+            message.setStringProperty("tenant", "acme");
+            message.setLongProperty(LatencyRecorder.SENT_AT_PROPERTY, 42L);
+            return message;
+        });
+        Message original = jmsTemplate.receive(queue);
+
+        long before = System.currentTimeMillis();
+        assertThat(retryService.handleFailure(original, new IllegalStateException("transient"))).isTrue();
+
+        TextMessage copy = (TextMessage) jmsTemplate.receive(queue);
+        assertThat(copy).isNotNull();
+        assertThat(System.currentTimeMillis() - before).isGreaterThanOrEqualTo(100);
+        assertThat(copy.getText()).isEqualTo("payload");
+        assertThat(copy.getJMSType()).isEqualTo("order");
+        assertThat(copy.getJMSCorrelationID()).isEqualTo("corr-1");
+        assertThat(copy.getStringProperty("tenant")).isEqualTo("acme");
+        assertThat(copy.getIntProperty(RetryService.RETRY_COUNT_PROPERTY)).isEqualTo(1);
+        assertThat(copy.getLongProperty(LatencyRecorder.ORIGINAL_SENT_AT_PROPERTY)).isEqualTo(42L);
+        assertThat(copy.getLongProperty(LatencyRecorder.SENT_AT_PROPERTY))
+                .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toMicros(before + 100));
+        assertThat(jmsTemplate.receive(queue + ".DLQ")).isNull();
+    }
+
+    @Test
+    void keepsFirstSendTimeAcrossRetries() throws Exception {
+        jmsTemplate.send(queue, session -> {
+            Message message = session.createTextMessage("payload");
+            message.setIntProperty(RetryService.RETRY_COUNT_PROPERTY, 1);
+            message.setLongProperty(LatencyRecorder.ORIGINAL_SENT_AT_PROPERTY, 42L);
+            message.setLongProperty(LatencyRecorder.SENT_AT_PROPERTY, 99L);
+            return message;
+        });
+
+        retryService.handleFailure(jmsTemplate.receive(queue), new IllegalStateException("transient"));
+
+        Message copy = jmsTemplate.receive(queue);
+        assertThat(copy.getIntProperty(RetryService.RETRY_COUNT_PROPERTY)).isEqualTo(2);
+        assertThat(copy.getLongProperty(LatencyRecorder.ORIGINAL_SENT_AT_PROPERTY)).isEqualTo(42L);
+    }
+
+    @Test
+    void keepsPriorityAndDeliveryModeAndDropsBrokerProperties() throws Exception {
+        jmsTemplate.execute(session -> {
+            Message message = session.createTextMessage("payload");
+            message.setStringProperty("tenant", "acme");
+            message.setStringProperty("_AMQ_DUPL_ID", "dup-1");
+            message.setStringProperty("JMSXUserID", "alice");
+            session.createProducer(session.createQueue(queue)).send(message, DeliveryMode.NON_PERSISTENT, 8, 0);
+            return null;
+        }, true);
+        Message original = jmsTemplate.receive(queue);
+        assertThat(original.getStringProperty("_AMQ_DUPL_ID")).isEqualTo("dup-1");
+        assertThat(original.getStringProperty("JMSXUserID")).isEqualTo("alice");
+
+        retryService.handleFailure(original, new IllegalStateException("transient"));
+
+        Message copy = jmsTemplate.receive(queue);
+        assertThat(copy.getJMSPriority()).isEqualTo(8);
+        assertThat(copy.getJMSDeliveryMode()).isEqualTo(DeliveryMode.NON_PERSISTENT);
+        assertThat(copy.getStringProperty("tenant")).isEqualTo("acme");
+        assertThat(copy.propertyExists("_AMQ_DUPL_ID")).isFalse();
+        assertThat(copy.propertyExists("JMSXUserID")).isFalse();
+    }
+
+    @Test
+    void routesNonRetryableFailureToDlqWithFailureMetadata() throws Exception {
+        BytesMessage copy = (BytesMessage) failToDlq(session -> {
+            BytesMessage message = session.createBytesMessage();
+            message.writeBytes(new byte[] {1, 2, 3});
+            return message;
+        }, new RuntimeException(new IllegalArgumentException("bad payload")));
+
+        byte[] body = new byte[(int) copy.getBodyLength()];
+        copy.readBytes(body);
+        assertThat(body).containsExactly(1, 2, 3);
+        assertThat(copy.getStringProperty(RetryService.FAILURE_REASON_PROPERTY)).isEqualTo("non-retryable");
+        assertThat(copy.getStringProperty(RetryService.ORIGINAL_QUEUE_PROPERTY)).isEqualTo(queue);
+        assertThat(copy.getStringProperty(RetryService.FAILURE_EXCEPTION_PROPERTY))
+                .isEqualTo("java.lang.RuntimeException: java.lang.IllegalArgumentException: bad payload");
+        assertThat(copy.getIntProperty(RetryService.RETRY_COUNT_PROPERTY)).isZero();
+        assertThat(copy.getStringProperty(RetryService.FAILED_AT_PROPERTY)).isNotBlank();
+    }
+
+    @Test
+    void copiesMapBody() throws Exception {
+        MapMessage copy = (MapMessage) failToDlq(session -> {
+            MapMessage message = session.createMapMessage();
+            message.setString("name", "widget");
+            message.setInt("quantity", 3);
+            return message;
+        }, new IllegalArgumentException("bad payload"));
+
+        assertThat(copy.getString("name")).isEqualTo("widget");
+        assertThat(copy.getInt("quantity")).isEqualTo(3);
+    }
+
+    @Test
+    void copiesObjectBody() throws Exception {
+        ObjectMessage copy = (ObjectMessage) failToDlq(session -> session.createObjectMessage(new ArrayList<>(List.of("a", "b"))),
+                new IllegalArgumentException("bad payload"));
+
+        assertThat(copy.getObject()).isEqualTo(List.of("a", "b"));
+    }
+
+    @Test
+    void copiesStreamBody() throws Exception {
+        StreamMessage copy = (StreamMessage) failToDlq(session -> {
+            StreamMessage message = session.createStreamMessage();
+            message.writeString("widget");
+            message.writeLong(7L);
+            message.writeBoolean(true);
+            return message;
+        }, new IllegalArgumentException("bad payload"));
+
+        assertThat(copy.readString()).isEqualTo("widget");
+        assertThat(copy.readLong()).isEqualTo(7L);
+        assertThat(copy.readBoolean()).isTrue();
+    }
+
+    @Test
+    void copiesBodyAlreadyReadByListener() throws Exception {
+        jmsTemplate.send(queue, session -> {
+            BytesMessage message = session.createBytesMessage();
+            message.writeBytes(new byte[] {4, 5});
+            return message;
+        });
+        BytesMessage original = (BytesMessage) jmsTemplate.receive(queue);
+        original.readBytes(new byte[2]);
+
+        retryService.handleFailure(original, new IllegalArgumentException("bad payload"));
+
+        BytesMessage copy = (BytesMessage) jmsTemplate.receive(queue + ".DLQ");
+        assertThat(copy.getBodyLength()).isEqualTo(2);
+    }
+
+    @Test
+    void routesExhaustedRetriesToDlq() throws Exception {
+        Message copy = failToDlq(session -> {
+            Message message = session.createTextMessage("payload");
+            message.setIntProperty(RetryService.RETRY_COUNT_PROPERTY, 3);
+            return message;
+        }, new IllegalStateException("transient"));
+
+        assertThat(copy.getStringProperty(RetryService.FAILURE_REASON_PROPERTY)).isEqualTo("retries-exhausted");
+        assertThat(copy.getIntProperty(RetryService.RETRY_COUNT_PROPERTY)).isEqualTo(3);
+    }
+
+    @Test
+    void routesRequestsExpectingReplyToDlq() throws Exception {
+        String replyQueue = queue + ".reply";
+        Message copy = failToDlq(session -> {
+            Message message = session.createTextMessage("request");
+            message.setJMSReplyTo(session.createQueue(replyQueue));
+            return message;
+        }, new IllegalStateException("transient"));
+
+        assertThat(copy.getStringProperty(RetryService.FAILURE_REASON_PROPERTY)).isEqualTo("reply-expected");
+        assertThat(((Queue) copy.getJMSReplyTo()).getQueueName()).isEqualTo(replyQueue);
+        assertThat(jmsTemplate.receive(queue)).isNull();
+    }
+
+    @Test
+    void leavesGroupedMessagesToBrokerRedelivery() throws Exception {
+        jmsTemplate.send(queue, session -> {
+            Message message = session.createTextMessage("payload");
+            message.setStringProperty("JMSXGroupID", "order-1");
+            return message;
+        });
+
+        assertThat(retryService.handleFailure(jmsTemplate.receive(queue), new IllegalStateException("transient")))
+                .isFalse();
+
+        jmsTemplate.setReceiveTimeout(500);
+        assertThat(jmsTemplate.receive(queue)).isNull();
+        assertThat(jmsTemplate.receive(queue + ".DLQ")).isNull();
+    }
+
+    @Test
+    void leavesEverythingToBrokerWhenDisabled() throws Exception {
+        ReflectionTestUtils.setField(retryService, "enabled", false);
+        jmsTemplate.convertAndSend(queue, "payload");
+
+        assertThat(retryService.handleFailure(jmsTemplate.receive(queue), new IllegalArgumentException("bad")))
+                .isFalse();
+
+        jmsTemplate.setReceiveTimeout(500);
+        assertThat(jmsTemplate.receive(queue + ".DLQ")).isNull();
+    }
+
+    // Sends, receives and fails one message, and returns the copy found on the DLQ
+    private Message failToDlq(MessageCreator creator, Exception cause) throws JMSException {
+        jmsTemplate.send(queue, creator);
+        assertThat(retryService.handleFailure(jmsTemplate.receive(queue), cause)).isTrue();
+
+        Message copy = jmsTemplate.receive(queue + ".DLQ");
+        assertThat(copy).isNotNull();
+        return copy;
+    }
+}
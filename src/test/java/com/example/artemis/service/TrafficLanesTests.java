@@ -0,0 +1,43 @@
+package com.example.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.example.artemis.service.TrafficLanes.Lane;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jms.core.JmsTemplate;
+
+class TrafficLanesTests {
+
+    private final JmsTemplate interactive = new JmsTemplate();
+
+    private final JmsTemplate sync = new JmsTemplate();
+
+    private final JmsTemplate bulk = new JmsTemplate();
+
+    @Test
+    void routesSyncQueueInteractiveDestinationsAndEverythingElse() {
+        TrafficLanes lanes = lanes(" requestQueue ", "replyQueue", "");
+
+        assertThat(lanes.laneFor("syncQueue")).isEqualTo(Lane.SYNC);
+        assertThat(lanes.laneFor("requestQueue")).isEqualTo(Lane.INTERACTIVE);
+        assertThat(lanes.laneFor("transactionQueue")).isEqualTo(Lane.BULK);
+        assertThat(lanes.laneFor("requestQueue.DLQ")).isEqualTo(Lane.BULK);
+        assertThat(lanes.templateFor("syncQueue")).isSameAs(sync);
+        assertThat(lanes.templateFor("replyQueue")).isSameAs(interactive);
+        assertThat(lanes.templateFor("asyncQueue")).isSameAs(bulk);
+    }
+
+    @Test
+    void rejectsPinnedQueuesAsInteractiveDestinations() {
+        assertThatIllegalArgumentException().isThrownBy(() -> lanes("requestQueue", "syncQueue"))
+                .withMessageContaining("syncQueue");
+        assertThatIllegalArgumentException().isThrownBy(() -> lanes("transactionQueue"))
+                .withMessageContaining("transactionQueue");
+    }
+
+    private TrafficLanes lanes(String... interactiveDestinations) {
+        return new TrafficLanes(interactive, sync, bulk, interactiveDestinations, "syncQueue", "transactionQueue");
+    }
+}